@@ -0,0 +1,413 @@
+package ivrit.backend;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Decides when the interpretations of the users run, and runs them away from the threads that handle the incoming
+ * WebSocket messages (so a program that runs for a long time, or waits for an input, never blocks the messages of other users).
+ * At most maxConcurrent programs run at the same time, and every user may run at most maxConcurrentPerUser of them.
+ * The other programs wait in a bounded queue, and the users take turns (round-robin), so a user that submits many programs
+ * can't make everyone else wait. A program that doesn't fit in the queue is rejected right away, instead of slowing down everyone.
+ * A user runs a single program at a time, so a new program of a user replaces the programs of the user that wait in the queue.
+ * Every program runs on its own virtual thread when the JVM supports them, and on a platform thread otherwise.
+ */
+@Component
+public class InterpretationScheduler {
+    /**
+     * What happened to a submitted interpretation.
+     */
+    public enum Admission {
+        // The interpretation started running:
+        STARTED,
+        // The interpretation waits for its turn:
+        QUEUED,
+        // The interpretation was rejected because the queue of the server is full:
+        SERVER_BUSY
+    }
+
+    // How long an idle thread is kept before it is stopped:
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    // How many programs may run at the same time:
+    private final int maxConcurrent;
+    // How many programs of a single user may run at the same time:
+    private final int maxConcurrentPerUser;
+    // How many programs may wait for their turn:
+    private final int queueCapacity;
+    // The executor that runs the interpretations (it never has more than maxConcurrent of them at the same time):
+    private final ThreadPoolExecutor executor;
+    // The waiting interpretations of every user that has any, in the order they were submitted:
+    private final Map<String, ArrayDeque<Submission>> waiting;
+    // The users that have waiting interpretations, in the order of their turns:
+    private final ArrayDeque<String> turns;
+    // How many interpretations of every user are running:
+    private final Map<String, Integer> runningPerUser;
+    // How many interpretations are running:
+    private int running;
+    // How many interpretations are waiting:
+    private int waitingCount;
+    // How many interpretations started running so far:
+    private long startedCount;
+    // How many interpretations were rejected so far:
+    private long rejectedCount;
+
+    /**
+     * Constructor.
+     * @param maxConcurrent - How many programs may run at the same time.
+     * @param maxConcurrentPerUser - How many programs of a single user may run at the same time.
+     * @param queueCapacity - How many programs may wait for their turn to run.
+     */
+    public InterpretationScheduler(@Value("${ivrit.interpreter.max-concurrent:64}") int maxConcurrent,
+                                   @Value("${ivrit.interpreter.max-concurrent-per-user:1}") int maxConcurrentPerUser,
+                                   @Value("${ivrit.interpreter.queue-capacity:256}") int queueCapacity) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxConcurrentPerUser = maxConcurrentPerUser;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), createThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.waiting = new HashMap<>();
+        this.turns = new ArrayDeque<>();
+        this.runningPerUser = new HashMap<>();
+    }
+
+    /**
+     * Runs an interpretation as soon as it is its turn, instead of the interpretations of its user that wait in the queue
+     * (a user runs a single program at a time). The waiting interpretations are only removed if the new one is admitted
+     * (started or queued), so a rejected interpretation doesn't take anything away from its user.
+     * @param user - The user the interpretation belongs to.
+     * @param interpretation - The interpretation to run.
+     * @param positionListener - Told about the position of the interpretation in the queue (starting at 1) whenever it
+     *                           changes, as long as the interpretation waits. Called without holding any lock of the scheduler.
+     * @return what happened to the interpretation.
+     */
+    public Admission submit(String user, Runnable interpretation, IntConsumer positionListener) {
+        Submission submission = new Submission(user, interpretation, positionListener);
+        Admission admission;
+        List<Submission> toStart = new ArrayList<>();
+        Map<Submission, Integer> positions = Map.of();
+        synchronized (this) {
+            ArrayDeque<Submission> userQueue = this.waiting.get(user);
+            int replaced = userQueue == null ? 0 : userQueue.size();
+            if (this.running < this.maxConcurrent && runningOf(user) < this.maxConcurrentPerUser)
+                admission = Admission.STARTED;
+            else if (this.waitingCount - replaced >= this.queueCapacity)
+                admission = Admission.SERVER_BUSY;
+            else
+                admission = Admission.QUEUED;
+
+            if (admission == Admission.SERVER_BUSY)
+                this.rejectedCount++;
+            else {
+                removeWaiting(user);
+                if (admission == Admission.STARTED) {
+                    markStarted(submission);
+                    toStart.add(submission);
+                } else {
+                    userQueue = new ArrayDeque<>();
+                    userQueue.addLast(submission);
+                    this.waiting.put(user, userQueue);
+                    this.turns.addLast(user);
+                    this.waitingCount++;
+                }
+
+                if (admission == Admission.QUEUED || replaced > 0)
+                    positions = changedPositions();
+            }
+        }
+
+        start(toStart);
+        notifyPositions(positions);
+        return admission;
+    }
+
+    /**
+     * Continues an interpretation that was suspended (it waited for an input that arrived now, or used up its time slice).
+     * It was already admitted, so it isn't limited by the queue, and it runs before the other waiting interpretations of its user.
+     * @param user - The user the interpretation belongs to.
+     * @param continuation - Continues the interpretation.
+     * @param beforeOtherUsers - true IFF the user gets the next turn (a user that waited for its input shouldn't wait again),
+     *                           false if the user waits for its turn after the other users (a program that used up its time slice).
+     */
+    public void resume(String user, Runnable continuation, boolean beforeOtherUsers) {
+        Submission submission = new Submission(user, continuation, position -> { });
+        List<Submission> toStart = new ArrayList<>();
+        Map<Submission, Integer> positions;
+        synchronized (this) {
+            ArrayDeque<Submission> userQueue = this.waiting.get(user);
+            if (userQueue == null) {
+                userQueue = new ArrayDeque<>();
+                this.waiting.put(user, userQueue);
+            } else
+                this.turns.remove(user);
+            if (beforeOtherUsers)
+                this.turns.addFirst(user);
+            else
+                this.turns.addLast(user);
+            userQueue.addFirst(submission);
+            this.waitingCount++;
+
+            dispatch(toStart);
+            positions = changedPositions();
+        }
+
+        start(toStart);
+        notifyPositions(positions);
+    }
+
+    /**
+     * Removes the waiting interpretations of a user, so they never run.
+     * @param user - The user whose interpretations are removed.
+     * @return how many interpretations were removed.
+     */
+    public int cancelWaiting(String user) {
+        Map<Submission, Integer> positions;
+        int removed;
+        synchronized (this) {
+            removed = removeWaiting(user);
+            if (removed == 0)
+                return 0;
+
+            positions = changedPositions();
+        }
+
+        notifyPositions(positions);
+        return removed;
+    }
+
+    /**
+     * Removes the waiting interpretations of a user. Must be called while holding the lock of the scheduler.
+     * @param user - The user whose interpretations are removed.
+     * @return how many interpretations were removed.
+     */
+    private int removeWaiting(String user) {
+        ArrayDeque<Submission> userQueue = this.waiting.remove(user);
+        if (userQueue == null)
+            return 0;
+
+        this.turns.remove(user);
+        this.waitingCount -= userQueue.size();
+        return userQueue.size();
+    }
+
+    /**
+     * @return the counters of the scheduler: how many interpretations are running and waiting now,
+     * and how many were started and rejected so far.
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put("running", (long) this.running);
+        statistics.put("waiting", (long) this.waitingCount);
+        statistics.put("started", this.startedCount);
+        statistics.put("rejected", this.rejectedCount);
+        return statistics;
+    }
+
+    /**
+     * Stops the running interpretations when the server shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Called when an interpretation finished running, to start the interpretations whose turn came.
+     * @param user - The user of the interpretation that finished.
+     */
+    private void onFinished(String user) {
+        List<Submission> toStart = new ArrayList<>();
+        Map<Submission, Integer> positions;
+        synchronized (this) {
+            this.running--;
+            int userRunning = runningOf(user) - 1;
+            if (userRunning == 0)
+                this.runningPerUser.remove(user);
+            else
+                this.runningPerUser.put(user, userRunning);
+
+            dispatch(toStart);
+            positions = toStart.isEmpty() ? Map.of() : changedPositions();
+        }
+
+        start(toStart);
+        notifyPositions(positions);
+    }
+
+    /**
+     * Takes the waiting interpretations that may start now, giving every user a turn in its order.
+     * Must be called while holding the lock of the scheduler.
+     * @param toStart - The interpretations that should start are added here.
+     */
+    private void dispatch(List<Submission> toStart) {
+        while (this.running < this.maxConcurrent) {
+            Iterator<String> users = this.turns.iterator();
+            String user = null;
+            while (users.hasNext()) {
+                String candidate = users.next();
+                if (runningOf(candidate) < this.maxConcurrentPerUser) {
+                    users.remove();
+                    user = candidate;
+                    break;
+                }
+            }
+
+            if (user == null) // Every user that waits already runs as many programs as it may.
+                return;
+
+            ArrayDeque<Submission> userQueue = this.waiting.get(user);
+            Submission submission = userQueue.pollFirst();
+            this.waitingCount--;
+            if (userQueue.isEmpty())
+                this.waiting.remove(user);
+            else
+                this.turns.addLast(user); // The user waits for its next turn after everyone else.
+
+            markStarted(submission);
+            toStart.add(submission);
+        }
+    }
+
+    /**
+     * Counts an interpretation as running. Must be called while holding the lock of the scheduler.
+     * @param submission - The interpretation that starts.
+     */
+    private void markStarted(Submission submission) {
+        this.running++;
+        this.runningPerUser.merge(submission.user, 1, Integer::sum);
+        this.startedCount++;
+    }
+
+    /**
+     * Finds the positions of the waiting interpretations in the order they will start (every user in its turn, one
+     * interpretation at a time), and keeps only the ones that changed since their users were last told.
+     * Must be called while holding the lock of the scheduler.
+     * @return the waiting interpretations whose positions changed, with their new positions.
+     */
+    private Map<Submission, Integer> changedPositions() {
+        Map<Submission, Integer> positions = new LinkedHashMap<>();
+        List<Iterator<Submission>> queues = new ArrayList<>();
+        for (String user : this.turns)
+            queues.add(this.waiting.get(user).iterator());
+
+        int position = 1;
+        while (!queues.isEmpty()) {
+            Iterator<Iterator<Submission>> round = queues.iterator();
+            while (round.hasNext()) {
+                Iterator<Submission> queue = round.next();
+                if (!queue.hasNext()) {
+                    round.remove();
+                    continue;
+                }
+
+                Submission submission = queue.next();
+                if (submission.lastPosition != position) {
+                    submission.lastPosition = position;
+                    positions.put(submission, position);
+                }
+                position++;
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Starts running interpretations.
+     * @param submissions - The interpretations to run (already counted as running).
+     */
+    private void start(List<Submission> submissions) {
+        for (Submission submission : submissions) {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        submission.interpretation.run();
+                    } finally {
+                        onFinished(submission.user);
+                    }
+                });
+            } catch (RejectedExecutionException exception) {
+                // The server shuts down:
+                onFinished(submission.user);
+            }
+        }
+    }
+
+    /**
+     * Tells the waiting interpretations about their new positions.
+     * @param positions - The waiting interpretations whose positions changed, with their new positions.
+     */
+    private static void notifyPositions(Map<Submission, Integer> positions) {
+        for (Map.Entry<Submission, Integer> entry : positions.entrySet())
+            entry.getKey().positionListener.accept(entry.getValue());
+    }
+
+    /**
+     * @return how many interpretations of the user are running. Must be called while holding the lock of the scheduler.
+     */
+    private int runningOf(String user) {
+        return this.runningPerUser.getOrDefault(user, 0);
+    }
+
+    /**
+     * @return a factory of virtual threads if the JVM supports them (Java 21 and later), or of platform daemon threads otherwise.
+     */
+    private static ThreadFactory createThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "ivrit-interpreter-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            // No virtual threads in this JVM:
+            AtomicInteger threadsCount = new AtomicInteger();
+            ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+            return runnable -> {
+                Thread thread = defaultFactory.newThread(runnable);
+                thread.setName("ivrit-interpreter-" + threadsCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    /**
+     * An interpretation that was submitted to the scheduler.
+     */
+    private static class Submission {
+        // The user the interpretation belongs to:
+        private final String user;
+        // The interpretation to run:
+        private final Runnable interpretation;
+        // Told about the position of the interpretation in the queue whenever it changes:
+        private final IntConsumer positionListener;
+        // The last position the listener was told about (0 if it wasn't told yet):
+        private int lastPosition;
+
+        Submission(String user, Runnable interpretation, IntConsumer positionListener) {
+            this.user = user;
+            this.interpretation = interpretation;
+            this.positionListener = positionListener;
+            this.lastPosition = 0;
+        }
+    }
+}
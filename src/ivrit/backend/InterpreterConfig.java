@@ -0,0 +1,29 @@
+package ivrit.backend;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ivrit.interpreter.OutputCache;
+import ivrit.interpreter.ProgramCache;
+
+@Configuration // Marks this as a configuration class
+public class InterpreterConfig {
+    /**
+     * The cache of preprocessed programs that is shared by all the users, since many of them run the same examples.
+     * @param maxCharacters - The maximal total size (in characters) of the cached programs.
+     */
+    @Bean
+    public ProgramCache programCache(@Value("${ivrit.interpreter.program-cache-characters:4000000}") long maxCharacters) {
+        return new ProgramCache(maxCharacters);
+    }
+
+    /**
+     * The cache of the outputs of programs that never ask for an input, so running the same example again only replays its output.
+     * @param maxCharacters - The maximal total size (in characters) of the cached outputs.
+     */
+    @Bean
+    public OutputCache outputCache(@Value("${ivrit.interpreter.output-cache-characters:4000000}") long maxCharacters) {
+        return new OutputCache(maxCharacters);
+    }
+}
@@ -1,29 +1,73 @@
 package ivrit.backend;
 
 import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import ivrit.interpreter.ExecutionLimits;
+import ivrit.interpreter.ExecutionStatus;
 import ivrit.interpreter.FlowController;
+import ivrit.interpreter.OutputCache;
+import ivrit.interpreter.ProgramCache;
 import ivrit.interpreter.SourceCodeLoader;
+import ivrit.interpreter.UserIO.BlockingIO;
 
 @Controller // Marks this class as a Spring MVC controller.
 public class InterpreterController {
     private SimpMessagingTemplate messagingTemplate;
-    //
-    private ConcurrentHashMap<String, WebSocketIO> ioMapping;
+    // The programs that are running now (or are suspended, or wait for their turn to start), by their users:
+    private ConcurrentHashMap<String, RunningInterpretation> runningInterpretations;
+    // Decides when the interpretations run, and runs them away from the threads that handle the incoming messages:
+    private InterpretationScheduler scheduler;
+    // The limits of every program that runs, so a single program can't take over the server:
+    private ExecutionLimits executionLimits;
+    // How many lines a program runs before it lets other programs run (0 if programs run until they end or wait for an input):
+    private long sliceLines;
+    // The cache of preprocessed programs, shared by all the users:
+    private ProgramCache programCache;
+    // The cache of the outputs of programs that never ask for an input, shared by all the users:
+    private OutputCache outputCache;
+    // The ids of the sessions that are connected now (spring may tell about the disconnection of a session more than once):
+    private final Set<String> connectedSessions;
+    // How many programs (running or waiting) were stopped because their users disconnected:
+    private final AtomicLong reclaimedInterpretations;
 
     /**
      * Constructor.
+     * @param maxLines - How many lines a program may execute.
+     * @param maxMillis - How many milliseconds a program may run (not counting the time it waits for inputs or for its turn).
+     * @param maxOutputCharacters - How many characters a program may print.
+     * @param sliceLines - How many lines a program runs before it lets other programs run (0 to run it until it ends).
      */
-    public InterpreterController(SimpMessagingTemplate messagingTemplate) {
+    public InterpreterController(SimpMessagingTemplate messagingTemplate, InterpretationScheduler scheduler, ProgramCache programCache,
+                                 OutputCache outputCache,
+                                 @Value("${ivrit.interpreter.max-lines:10000000}") long maxLines,
+                                 @Value("${ivrit.interpreter.max-millis:10000}") long maxMillis,
+                                 @Value("${ivrit.interpreter.max-output-characters:1000000}") long maxOutputCharacters,
+                                 @Value("${ivrit.interpreter.slice-lines:100000}") long sliceLines) {
         this.messagingTemplate = messagingTemplate;
-        this.ioMapping = new ConcurrentHashMap<>();
+        this.runningInterpretations = new ConcurrentHashMap<>();
+        this.connectedSessions = ConcurrentHashMap.newKeySet();
+        this.reclaimedInterpretations = new AtomicLong();
+        this.scheduler = scheduler;
+        this.programCache = programCache;
+        this.outputCache = outputCache;
+        this.executionLimits = new ExecutionLimits(maxLines, maxMillis, maxOutputCharacters);
+        this.sliceLines = sliceLines;
     }
     
     @MessageMapping("/interpret")
@@ -36,16 +80,51 @@ public class InterpreterController {
 
         String username = user.getName();
         WebSocketIO io = new WebSocketIO(messagingTemplate, username, code);
-        this.ioMapping.put(username, io);
+        // The program asks for its inputs without waiting for them, and is continued when they arrive:
+        BlockingIO programIO = new BlockingIO(io);
 
         SourceCodeLoader codeLoader = new WebSocketSourceCodeLoader();
-        FlowController controller = new FlowController(io, codeLoader, false, false);
+        FlowController controller = new FlowController(programIO, codeLoader, false, false);
+        controller.setExecutionLimits(this.executionLimits);
+        controller.setProgramCache(this.programCache);
+        controller.setOutputCache(this.outputCache);
 
-        // Actually start running the interpreter:
-        controller.startIvritInterpreter();
+        // The program is registered before it is submitted, so it is found (and stopped) even before it starts:
+        RunningInterpretation interpretation = new RunningInterpretation(io, programIO, controller);
+        RunningInterpretation previous = this.runningInterpretations.put(username, interpretation);
 
-        // Finished the interpretation:
-        this.ioMapping.remove(username);
+        // Actually start running the interpreter when its turn comes (on its own thread, so this one can keep handling messages).
+        // The inputs the user sends before the program asks for them wait for it in its IO:
+        InterpretationScheduler.Admission admission = this.scheduler.submit(username, () -> {
+            // The program may have been stopped while it waited for its turn:
+            if (interpretation.stopped.get())
+                return;
+
+            interpretation.started = true;
+            continueInterpretation(username, interpretation, true);
+        }, position -> {
+            // The program may have started before it was told about its position:
+            if (interpretation.started)
+                return;
+
+            io.print("התכנית ממתינה בתור להרצה, מקום " + position + " בתור.");
+            io.flush();
+        });
+
+        if (admission == InterpretationScheduler.Admission.SERVER_BUSY) {
+            // The previous program of the user keeps running (unless it ended in the meantime):
+            if (previous == null || !this.runningInterpretations.replace(username, interpretation, previous))
+                this.runningInterpretations.remove(username, interpretation);
+            else if (previous.ended)
+                this.runningInterpretations.remove(username, previous);
+
+            io.print("השרת עמוס כרגע, נסו להריץ את הקוד שוב בעוד מספר רגעים.");
+            io.flush();
+        } else if (previous != null) {
+            // A user runs a single program at a time, so the new program replaces the previous one (the scheduler already
+            // removed it if it waited for its turn, and a suspended program doesn't hold a turn, so it is stopped here):
+            previous.stop();
+        }
     }
 
     @MessageMapping("/input") // This method is mapped to messages sent to "/app/input"
@@ -55,10 +134,154 @@ public class InterpreterController {
             return "No user";
         }
 
-        WebSocketIO io = this.ioMapping.get(user.getName());
-        if (io != null)
-            io.supplyUserInput(input);
+        RunningInterpretation interpretation = this.runningInterpretations.get(user.getName());
+        if (interpretation != null)
+            interpretation.io.supplyUserInput(input);
         
         return "Input Received";
     }
+
+    /**
+     * Runs a program until it ends, until it waits for an input, or until it used up its time slice (sliceLines lines).
+     * A suspended program doesn't hold a thread: a program that used up its time slice continues (on any thread) after the
+     * other users had their turns, and a program that waits for an input continues when its input arrives.
+     * @param username - The user of the program.
+     * @param interpretation - The program to run.
+     * @param isStart - true IFF the program didn't start yet.
+     */
+    private void continueInterpretation(String username, RunningInterpretation interpretation, boolean isStart) {
+        ExecutionStatus status = ExecutionStatus.FINISHED;
+        try {
+            status = isStart ? interpretation.controller.beginIvritInterpreter(this.sliceLines > 0 ? this.sliceLines : Long.MAX_VALUE)
+                    : interpretation.controller.resumeIvritInterpreter();
+        } finally {
+            if (status == ExecutionStatus.FINISHED) {
+                // Finished the interpretation:
+                interpretation.io.flush();
+                end(username, interpretation);
+            } else if (interpretation.stopped.get()) {
+                // The program was stopped while it ran, so it isn't continued:
+                end(username, interpretation);
+            } else if (status == ExecutionStatus.RUNNING) {
+                this.scheduler.resume(username, () -> continueInterpretation(username, interpretation, false), false);
+            } else {
+                interpretation.waitingForInput.set(true);
+                // Continued when the input arrives (right away if it already did). If the user disconnected, the program is dropped:
+                interpretation.programIO.getPendingUserInput().whenComplete((input, error) -> {
+                    if (error == null)
+                        resumeWithInput(username, interpretation);
+                });
+            }
+        }
+    }
+
+    /**
+     * Forgets a program that ended, or was stopped.
+     * @param username - The user of the program.
+     * @param interpretation - The program that ended.
+     */
+    private void end(String username, RunningInterpretation interpretation) {
+        // Marked before it is removed, so a program that is put back (see executeCode) after it ended is noticed:
+        interpretation.ended = true;
+        this.runningInterpretations.remove(username, interpretation);
+    }
+
+    /**
+     * Continues a suspended program (when its turn comes), if it waits for an input.
+     * @param username - The user of the program.
+     * @param interpretation - The program that got an input.
+     */
+    private void resumeWithInput(String username, RunningInterpretation interpretation) {
+        if (interpretation.waitingForInput.compareAndSet(true, false))
+            this.scheduler.resume(username, () -> continueInterpretation(username, interpretation, false), true);
+    }
+
+    @EventListener // Called by spring when a user connects.
+    public void handleConnect(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null)
+            this.connectedSessions.add(sessionId);
+    }
+
+    /**
+     * Called by spring when a user disconnects (closed the tab, lost the connection, etc...).
+     * The programs of the user are useless from now on, so its waiting programs are removed and its running program is
+     * stopped (a program that waits for an input is just dropped), which frees its thread and its variables.
+     * A session that is told about more than once is only handled the first time.
+     */
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        if (!this.connectedSessions.remove(event.getSessionId()))
+            return;
+
+        Principal user = event.getUser();
+        if (user == null)
+            return;
+
+        // The user has a single program (see executeCode), and everything that waits in the scheduler belongs to it:
+        this.scheduler.cancelWaiting(user.getName());
+        RunningInterpretation interpretation = this.runningInterpretations.remove(user.getName());
+        if (interpretation != null && interpretation.stop())
+            this.reclaimedInterpretations.incrementAndGet();
+    }
+
+    /**
+     * @return the counters of the sessions: how many users are connected, how many programs are running (and how many of them
+     * wait for an input), how many programs wait for their turn to start,
+     * and how many programs (running or waiting) were stopped because their users disconnected.
+     */
+    public Map<String, Long> getSessionStatistics() {
+        Map<String, Long> statistics = new HashMap<>();
+        long started = this.runningInterpretations.values().stream().filter(interpretation -> interpretation.started).count();
+        statistics.put("connected", (long) this.connectedSessions.size());
+        statistics.put("running", started);
+        statistics.put("queued", this.runningInterpretations.size() - started);
+        statistics.put("waitingForInput", this.runningInterpretations.values().stream().filter(interpretation -> interpretation.waitingForInput.get()).count());
+        statistics.put("reclaimed", this.reclaimedInterpretations.get());
+        return statistics;
+    }
+
+    /**
+     * A program that is running now (or is suspended, or waits for its turn to start).
+     */
+    private static class RunningInterpretation {
+        // The IO of the program:
+        private final WebSocketIO io;
+        // The IO the program uses, which gets its inputs from io:
+        private final BlockingIO programIO;
+        // The controller that runs the program:
+        private final FlowController controller;
+        // true IFF the program is suspended until it gets an input:
+        private final AtomicBoolean waitingForInput;
+        // true IFF the program was stopped (its user disconnected, or ran another program):
+        private final AtomicBoolean stopped;
+        // true IFF the program started running (it doesn't wait for its turn to start anymore):
+        private volatile boolean started;
+        // true IFF the program ended (or was stopped) and won't run anymore:
+        private volatile boolean ended;
+
+        RunningInterpretation(WebSocketIO io, BlockingIO programIO, FlowController controller) {
+            this.io = io;
+            this.programIO = programIO;
+            this.controller = controller;
+            this.waitingForInput = new AtomicBoolean(false);
+            this.stopped = new AtomicBoolean(false);
+            this.started = false;
+            this.ended = false;
+        }
+
+        /**
+         * Stops the program: a running program stops with an error at the next check of its limits, and a suspended
+         * program is never continued. Its IO drops its output, and fails the input the program waits for.
+         * @return true IFF the program wasn't stopped before.
+         */
+        boolean stop() {
+            if (!this.stopped.compareAndSet(false, true))
+                return false;
+
+            this.controller.cancel();
+            this.io.close();
+            return true;
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package ivrit.backend;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import ivrit.interpreter.OutputCache;
+import ivrit.interpreter.ProgramCache;
+
+@RestController // Marks this class as a controller whose methods return the body of the response.
+public class StatisticsController {
+    // The cache of preprocessed programs:
+    private ProgramCache programCache;
+    // The cache of the outputs of programs that never ask for an input:
+    private OutputCache outputCache;
+    // Decides when the interpretations run:
+    private InterpretationScheduler scheduler;
+    // Handles the programs of the connected users:
+    private InterpreterController interpreterController;
+
+    /**
+     * Constructor.
+     */
+    public StatisticsController(ProgramCache programCache, OutputCache outputCache, InterpretationScheduler scheduler,
+                                InterpreterController interpreterController) {
+        this.programCache = programCache;
+        this.outputCache = outputCache;
+        this.scheduler = scheduler;
+        this.interpreterController = interpreterController;
+    }
+
+    /**
+     * @return the counters of the backend, for the operators of the server.
+     */
+    @GetMapping("/statistics")
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("programCache", this.programCache.getStatistics());
+        statistics.put("outputCache", this.outputCache.getStatistics());
+        statistics.put("scheduler", this.scheduler.getStatistics());
+        statistics.put("sessions", this.interpreterController.getSessionStatistics());
+        return statistics;
+    }
+}
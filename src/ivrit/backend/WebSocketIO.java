@@ -1,21 +1,59 @@
 package ivrit.backend;
 
-import ivrit.interpreter.UserIO.IvritIO;
+import ivrit.interpreter.ExecutionGuard;
+import ivrit.interpreter.IvritExceptions.ExecutionLimitException;
+import ivrit.interpreter.UserIO.AsyncIvritIO;
+import ivrit.interpreter.UserIO.IvritPrintable;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
-public class WebSocketIO implements IvritIO {
+/**
+ * The IO of a program that runs for a user that is connected through a WebSocket. Nothing here waits for the user:
+ * an input is a stage that completes when the user sends it, so no thread is parked while the user thinks.
+ * Prints are not sent one by one: they are coalesced to a single message (the printed lines, separated by '\n'),
+ * which is sent when it grows too big, FLUSH_INTERVAL_MILLIS after its first line, before asking for an input,
+ * and when the program ends. The messages are sent in the order of the prints.
+ */
+public class WebSocketIO implements AsyncIvritIO {
+    // How long a printed line may wait before it is sent:
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+    // The buffered output is sent as soon as it is this long:
+    private static final int MAX_BATCH_CHARACTERS = 16 * 1024;
+    // Sends the buffered output of all the users when its time comes:
+    private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ivrit-output-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // A spring object that allows us to send messages to a specific user.
     private SimpMessagingTemplate messagingTemplate;
     // A unique identifier of the user that allows us to send messages only to it.
     private String username;
     // The code the user wants to run.
     private String code;
-    // A queue for incoming inputs. When it is empty and we try to access it, we are blocked until a new item is inserted.
-    private final BlockingQueue<String> inputQueue;
+    // The inputs the user sent before the program asked for them:
+    private final Deque<String> inputs;
+    // The inputs the program asked for before the user sent them, in the order they were asked for:
+    private final Deque<CompletableFuture<String>> inputRequests;
+    // The printed lines that were not sent yet (separated by '\n'):
+    private final StringBuilder outputBuffer;
+    // How many lines are in outputBuffer (a batch of empty lines has lines, but no characters):
+    private int bufferedLines;
+    // true IFF a flush of the buffered output is already scheduled:
+    private boolean flushScheduled;
+    // true IFF the user disconnected (nothing is sent to it anymore, and the program can't get inputs):
+    private boolean closed;
 
     /**
      * Constructor.
@@ -24,37 +62,141 @@ public class WebSocketIO implements IvritIO {
         this.messagingTemplate = messagingTemplate;
         this.username = username;
         this.code = code;
-        this.inputQueue = new LinkedBlockingQueue<>();
+        this.inputs = new ArrayDeque<>();
+        this.inputRequests = new ArrayDeque<>();
+        this.outputBuffer = new StringBuilder();
+        this.bufferedLines = 0;
+        this.flushScheduled = false;
+        this.closed = false;
     }
 
     @Override
     public void print(String message) {
+        print((CharSequence) message);
+    }
+
+    @Override
+    public synchronized void print(CharSequence message) {
+        if (this.closed)
+            return;
+
+        if (this.bufferedLines > 0)
+            this.outputBuffer.append('\n');
+        this.outputBuffer.append(message);
+        onPrinted();
+    }
+
+    @Override
+    public synchronized void print(IvritPrintable message) {
+        if (this.closed)
+            return;
+
+        // The text is written straight into the buffer (if appending it fails, it is taken back):
+        int start = this.outputBuffer.length();
+        try {
+            if (this.bufferedLines > 0)
+                this.outputBuffer.append('\n');
+            message.appendTo(this.outputBuffer);
+        } catch (RuntimeException exception) {
+            this.outputBuffer.setLength(start);
+            throw exception;
+        }
+
+        onPrinted();
+    }
+
+    /**
+     * Counts the line that was just printed, and sends the buffered output if it grew too big, or makes sure it is sent soon.
+     * Must be called while holding the lock of this object.
+     */
+    private void onPrinted() {
+        this.bufferedLines++;
+        if (this.outputBuffer.length() >= MAX_BATCH_CHARACTERS) {
+            flush();
+        } else if (!this.flushScheduled) {
+            this.flushScheduled = true;
+            FLUSH_SCHEDULER.schedule(this::flush, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends all the buffered output to the user.
+     */
+    @Override
+    public synchronized void flush() {
+        this.flushScheduled = false;
+        if (this.bufferedLines == 0 || this.closed)
+            return;
+
         // Send the message to the user's destination. 
         // The destination "/queue/output" is defined in our WebSocket configuration.
-        this.messagingTemplate.convertAndSendToUser(this.username, "/queue/output", message);
+        this.messagingTemplate.convertAndSendToUser(this.username, "/queue/output", this.outputBuffer.toString());
+        this.outputBuffer.setLength(0);
+        this.bufferedLines = 0;
     }
 
     @Override
-    public String getUserInput() {
-        try {
-            if (this.inputQueue.isEmpty())
-                this.messagingTemplate.convertAndSendToUser(this.username, "/queue/input", "INPUT");
-            return this.inputQueue.take();
-        } catch (InterruptedException exception) {
-            Thread.currentThread().interrupt();
-            return "";
+    public synchronized void printAll(List<String> messages) {
+        for (String message : messages)
+            print(message);
+    }
+
+    @Override
+    public CompletionStage<String> requestUserInput() {
+        CompletableFuture<String> input;
+        synchronized (this) {
+            // The user should see everything that was printed before the input is requested:
+            flush();
+            if (this.closed)
+                return CompletableFuture.failedFuture(new ExecutionLimitException(ExecutionGuard.CANCELLED_MESSAGE));
+
+            if (!this.inputs.isEmpty())
+                return CompletableFuture.completedFuture(this.inputs.pollFirst());
+
+            input = new CompletableFuture<>();
+            this.inputRequests.addLast(input);
         }
+
+        this.messagingTemplate.convertAndSendToUser(this.username, "/queue/input", "INPUT");
+        return input;
     }
 
     @Override
-    public String getCode() {
-        return code;
+    public CompletionStage<String> requestCode() {
+        return CompletableFuture.completedFuture(this.code);
     }
-    
+
     /**
      *  A method to be called when input is received from the client
      */
     public void supplyUserInput(String input) {
-        inputQueue.offer(input);
+        CompletableFuture<String> request;
+        synchronized (this) {
+            request = this.inputRequests.pollFirst();
+            if (request == null) {
+                this.inputs.addLast(input);
+                return;
+            }
+        }
+
+        // Completed without holding the lock, since it may continue the program:
+        request.complete(input);
+    }
+
+    /**
+     * Called when the user disconnected: drops the output that wasn't sent, and fails the inputs the program waits for
+     * (so it stops with an error instead of waiting forever).
+     */
+    public void close() {
+        List<CompletableFuture<String>> requests;
+        synchronized (this) {
+            this.closed = true;
+            this.outputBuffer.setLength(0);
+            requests = new ArrayList<>(this.inputRequests);
+            this.inputRequests.clear();
+        }
+
+        for (CompletableFuture<String> request : requests)
+            request.completeExceptionally(new ExecutionLimitException(ExecutionGuard.CANCELLED_MESSAGE));
     }
 }
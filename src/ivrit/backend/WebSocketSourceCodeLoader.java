@@ -1,6 +1,6 @@
 package ivrit.backend;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import ivrit.interpreter.SourceCodeLoader;
@@ -14,7 +14,7 @@ public class WebSocketSourceCodeLoader implements SourceCodeLoader {
     @Override
     public SourceFile load(String str) throws IllegalArgumentException {
         String[] lines = str.split("\n");
-        List<String> codeLines = new LinkedList<>();
+        List<String> codeLines = new ArrayList<>(lines.length);
 
         for (String line : lines) {
             if (line.isBlank() || line.charAt(0) == SourceCodeLoader.COMMENT_SYMBOL)
@@ -0,0 +1,340 @@
+package ivrit.benchmark;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ivrit.interpreter.Jumper;
+import ivrit.interpreter.SourceFile;
+import ivrit.interpreter.Evaluation.Expression;
+import ivrit.interpreter.Evaluation.ExpressionParser;
+import ivrit.interpreter.Evaluation.ValueOperations;
+import ivrit.interpreter.IvritStreams.JumpingSourceFileReader;
+import ivrit.interpreter.Variables.ArgumentData;
+import ivrit.interpreter.Variables.SymbolTable;
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.Variable;
+import ivrit.interpreter.Variables.VariablesController;
+import ivrit.interpreter.Variables.VariablesFactory;
+
+/**
+ * Measures the hot paths of the interpreter on their own: parsing and evaluating expressions, looking up variables through
+ * nested scopes, creating scopes, reading items of lists, and jumping.
+ * Every benchmark runs with every parameter in its own JVM, so the JIT compiles every operation on its own.
+ * Every benchmark is measured for a few warmup iterations and then for the measured iterations, and we report the average
+ * nanoseconds per operation (with the standard deviation between the iterations), the bytes allocated per operation,
+ * and how many garbage collections happened (and how long they took) during the measured iterations.
+ * Run it with: java ivrit.benchmark.HotPathBenchmark [expressionLengths=2,8,32] [scopeDepths=1,8,64] [listSizes=10,1000,100000]
+ */
+public class HotPathBenchmark {
+    // The parameters we measure with when they are not given:
+    private static final int[] DEFAULT_EXPRESSION_LENGTHS = { 2, 8, 32 };
+    private static final int[] DEFAULT_SCOPE_DEPTHS = { 1, 8, 64 };
+    private static final int[] DEFAULT_LIST_SIZES = { 10, 1000, 100000 };
+    // The benchmarks that run with every parameter:
+    private static final String[] EXPRESSION_BENCHMARKS = { "parse", "evaluate" };
+    private static final String[] SCOPE_BENCHMARKS = { "lookupGlobal", "lookupLocal", "scope" };
+    private static final String[] LIST_BENCHMARKS = { "listValue", "listItemAt" };
+    // The number of lines of the program the jump benchmark jumps in:
+    private static final int JUMP_PROGRAM_LINES = 3;
+    // The argument that makes this program run a single benchmark (used by the benchmark itself, which runs every benchmark in its own JVM):
+    private static final String CASE_ARGUMENT = "--case";
+    // How many iterations are run before we start measuring (so the JIT has compiled the code):
+    private static final int WARMUP_ITERATIONS = 20;
+    // How many iterations are measured:
+    private static final int MEASURED_ITERATIONS = 10;
+    // How long every iteration runs:
+    private static final long ITERATION_NANOS = 100_000_000L;
+    // How many operations are run between two checks of the clock:
+    private static final int BATCH_SIZE = 1000;
+
+    // The results of the operations are stored here, so the JIT can't remove the work we measured:
+    private static volatile Object sink;
+
+    /**
+     * A single operation we measure.
+     */
+    private interface Operation {
+        /**
+         * @return the result of the operation (so it isn't removed by the JIT).
+         */
+        Object run();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 3 && args[0].equals(CASE_ARGUMENT)) {
+            int parameter = Integer.parseInt(args[2]);
+            measure(args[1], parameter, createOperation(args[1], parameter));
+            return;
+        }
+
+        Map<String, int[]> parameters = new HashMap<>();
+        parameters.put("expressionLengths", DEFAULT_EXPRESSION_LENGTHS);
+        parameters.put("scopeDepths", DEFAULT_SCOPE_DEPTHS);
+        parameters.put("listSizes", DEFAULT_LIST_SIZES);
+        for (String arg : args) {
+            String[] parts = arg.split("=");
+            if (parts.length != 2 || !parameters.containsKey(parts[0]))
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+
+            String[] values = parts[1].split(",");
+            int[] parsed = new int[values.length];
+            for (int i = 0; i < values.length; i++)
+                parsed[i] = Integer.parseInt(values[i].trim());
+            parameters.put(parts[0], parsed);
+        }
+
+        System.out.println(String.format("%-12s | %8s | %12s | %10s | %12s | %8s | %8s",
+                "benchmark", "param", "ns/op", "± stdev", "bytes/op", "gc count", "gc ms"));
+
+        for (int length : parameters.get("expressionLengths"))
+            for (String name : EXPRESSION_BENCHMARKS)
+                fork(name, length);
+
+        for (int depth : parameters.get("scopeDepths"))
+            for (String name : SCOPE_BENCHMARKS)
+                fork(name, depth);
+
+        for (int size : parameters.get("listSizes"))
+            for (String name : LIST_BENCHMARKS)
+                fork(name, size);
+
+        fork("jump", JUMP_PROGRAM_LINES);
+    }
+
+    /**
+     * Runs a single benchmark in a new JVM, which prints its results. This way the JIT only ever sees the operation
+     * of this benchmark (so calling it stays monomorphic), and one benchmark can't change how the next ones are compiled.
+     * @param name - The name of the benchmark.
+     * @param parameter - The parameter of the benchmark.
+     */
+    private static void fork(String name, int parameter) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dfile.encoding=UTF-8", "-cp", System.getProperty("java.class.path"), HotPathBenchmark.class.getName(),
+                CASE_ARGUMENT, name, String.valueOf(parameter))
+                .inheritIO()
+                .start();
+
+        if (process.waitFor() != 0)
+            throw new IllegalStateException("The benchmark " + name + " (" + parameter + ") failed.");
+    }
+
+    /**
+     * @param name - The name of the benchmark.
+     * @param parameter - The parameter of the benchmark (the length of the expression, the depth of the scopes, or the size of the list).
+     * @return the operation the benchmark measures.
+     */
+    private static Operation createOperation(String name, int parameter) {
+        switch (name) {
+            case "parse":
+            case "evaluate":
+                return createExpressionOperation(name, parameter);
+            case "lookupGlobal":
+            case "lookupLocal":
+            case "scope":
+                return createScopeOperation(name, parameter);
+            case "listValue":
+            case "listItemAt":
+                return createListOperation(name, parameter);
+            case "jump":
+                return createJumpOperation();
+            default:
+                throw new IllegalArgumentException("Unknown benchmark: " + name);
+        }
+    }
+
+    /**
+     * @return an operation that parses or evaluates an expression with the given amount of values.
+     */
+    private static Operation createExpressionOperation(String name, int length) {
+        String expression = generateExpression(length);
+        SymbolTable symbols = new SymbolTable();
+        VariablesController variables = createVariables(symbols);
+        if (name.equals("parse"))
+            return () -> new ExpressionParser(expression, symbols).parse();
+
+        Expression parsed = new ExpressionParser(expression, symbols).parse();
+        return () -> parsed.evaluate(variables);
+    }
+
+    /**
+     * @return an operation that looks up a variable through the given amount of nested scopes, or creates another scope on top of them.
+     */
+    private static Operation createScopeOperation(String name, int depth) {
+        SymbolTable symbols = new SymbolTable();
+        VariablesController variables = createVariables(symbols);
+        int globalSlot = symbols.slotOf("x");
+        int localSlot = symbols.slotOf("מקומי");
+        for (int i = 0; i < depth; i++) {
+            variables.createScope();
+            variables.createVariable(localSlot, "שלם", Value.ofInteger(i), false, false);
+        }
+
+        if (name.equals("lookupGlobal"))
+            return () -> variables.getVariableValue(globalSlot);
+
+        if (name.equals("lookupLocal"))
+            return () -> variables.getVariableValue(localSlot);
+
+        return () -> {
+            variables.createScope();
+            variables.createVariable(localSlot, "שלם", Value.ofInteger(1), false, false);
+            variables.popScope();
+            return variables;
+        };
+    }
+
+    /**
+     * @return an operation that reads a list variable with the given amount of items, or the item in its middle.
+     */
+    private static Operation createListOperation(String name, int size) {
+        List<Value> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            items.add(Value.ofInteger(i));
+        Variable list = VariablesFactory.createVariable("שלם", Value.ofList(items), true, false);
+        Value middle = Value.ofInteger(size / 2 + 1);
+
+        if (name.equals("listValue"))
+            return list::getValue;
+
+        return () -> ValueOperations.itemAt(list.getValue(), middle);
+    }
+
+    /**
+     * @return an operation that jumps back and forth between two jump flags.
+     */
+    private static Operation createJumpOperation() {
+        List<String> lines = new ArrayList<>();
+        lines.add("@התחלה");
+        lines.add("הדפס 1");
+        lines.add("@סוף");
+        Map<String, Integer> jumpMap = new HashMap<>();
+        jumpMap.put("התחלה", 1);
+        jumpMap.put("סוף", 3);
+        Jumper jumper = new Jumper(jumpMap, new HashMap<>());
+        try {
+            jumper.setActiveReader(new JumpingSourceFileReader(new SourceFile(lines)));
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+
+        return () -> {
+            jumper.activeReaderJumpTo(jumper.getJumpFlagLine("התחלה"), "התחלה");
+            jumper.activeReaderJumpTo(jumper.getJumpFlagLine("סוף"), "סוף");
+            return jumper;
+        };
+    }
+
+    /**
+     * Measures an operation and prints the results.
+     * @param name - The name of the benchmark.
+     * @param parameter - The parameter the operation was created with.
+     * @param operation - The operation to measure.
+     */
+    private static void measure(String name, int parameter, Operation operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            runIteration(operation);
+
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = allocatedBytes();
+        long totalOperations = 0;
+        double[] nanosPerOperation = new double[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            long operations = runIteration(operation);
+            nanosPerOperation[i] = (double) (System.nanoTime() - start) / operations;
+            totalOperations += operations;
+        }
+
+        double bytesPerOperation = (double) (allocatedBytes() - allocatedBefore) / totalOperations;
+        double mean = 0;
+        for (double value : nanosPerOperation)
+            mean += value / MEASURED_ITERATIONS;
+        double variance = 0;
+        for (double value : nanosPerOperation)
+            variance += (value - mean) * (value - mean) / MEASURED_ITERATIONS;
+
+        System.out.println(String.format("%-12s | %8d | %12.1f | %10.1f | %12.1f | %8d | %8d",
+                name, parameter, mean, Math.sqrt(variance), bytesPerOperation, gcCount() - gcCountBefore, gcTime() - gcTimeBefore));
+    }
+
+    /**
+     * Runs the operation in batches until the iteration time is over.
+     * @return how many times the operation ran.
+     */
+    private static long runIteration(Operation operation) {
+        long end = System.nanoTime() + ITERATION_NANOS;
+        long operations = 0;
+        do {
+            for (int i = 0; i < BATCH_SIZE; i++)
+                sink = operation.run();
+            operations += BATCH_SIZE;
+        } while (System.nanoTime() < end);
+
+        return operations;
+    }
+
+    /**
+     * @return how many bytes the current thread allocated so far, or 0 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return 0;
+    }
+
+    /**
+     * @return how many garbage collections happened so far.
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, collector.getCollectionCount());
+
+        return count;
+    }
+
+    /**
+     * @return how many milliseconds the garbage collections took so far.
+     */
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            time += Math.max(0, collector.getCollectionTime());
+
+        return time;
+    }
+
+    /**
+     * @return the variables of a program with the integer variables x and y.
+     */
+    private static VariablesController createVariables(SymbolTable symbols) {
+        VariablesController variables = new VariablesController(new HashMap<String, List<ArgumentData>>(), symbols);
+        variables.createVariable(symbols.slotOf("x"), "שלם", Value.ofInteger(3), false, false);
+        variables.createVariable(symbols.slotOf("y"), "שלם", Value.ofInteger(7), false, false);
+        return variables;
+    }
+
+    /**
+     * @return an expression with the given amount of values, that mixes variables, numbers, and all the arithmetic operators.
+     */
+    private static String generateExpression(int length) {
+        String[] operators = { " + ", " * ", " - ", " / " };
+        StringBuilder expression = new StringBuilder("x");
+        for (int i = 1; i < length; i++) {
+            expression.append(operators[i % operators.length]);
+            expression.append(i % 2 == 0 ? "y" : String.valueOf(i));
+        }
+
+        return expression.toString();
+    }
+}
@@ -0,0 +1,300 @@
+package ivrit.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ivrit.interpreter.FileSourceCodeLoader;
+import ivrit.interpreter.FlowController;
+import ivrit.interpreter.RunStatistics;
+import ivrit.interpreter.UserIO.IvritIO;
+
+/**
+ * Runs a corpus of realistic Ivrit programs from start to end through the FlowController, the same way a user runs them.
+ * Every program in the corpus directory (name.txt) runs in a few separate JVMs (forks), so the JIT profile of one program
+ * doesn't slow down the next one, and the difference between JVMs shows up as noise instead of as a change.
+ * Every fork runs the program a few times, and we report the fastest and the median wall times, how the fastest run splits
+ * between preprocessing and interpretation, how many lines it executed per second, and the allocation rate.
+ * The output of every run is compared with the golden file of the program (name.expected), and the inputs
+ * the program asks for are taken from name.input (one input per line).
+ * The programs of the corpus run for hundreds of milliseconds each, so the timer and the scheduler are small next to them.
+ * The fastest time is compared with the baseline file of the corpus (baseline.json), since it is the time least affected by
+ * the rest of the machine. A program is reported as slower only when it slowed down by more than its noise: how far apart
+ * the fastest times of its forks are, now or when the baseline was taken (whichever is bigger).
+ * Run it with: java ivrit.benchmark.MacroBenchmark [corpusDirectory] [--update-baseline] [--update-golden]
+ */
+public class MacroBenchmark {
+    // The corpus we run when no directory is given:
+    private static final String DEFAULT_CORPUS = "בדיקות/ביצועים";
+    // The name of the file that stores the baseline times of the corpus:
+    private static final String BASELINE_FILE = "baseline.json";
+    // The argument that makes this program a fork, which runs a single program (used by the benchmark itself):
+    private static final String FORK_ARGUMENT = "--fork";
+    // How many JVMs every program runs in:
+    private static final int FORKS = 5;
+    // How many runs of every program are not measured in every fork (so the JIT has compiled the interpreter):
+    private static final int WARMUP_RUNS = 3;
+    // How many runs of every program are measured in every fork:
+    private static final int MEASURED_RUNS = 4;
+    // A program is never reported as slower than the baseline when its fastest time grew by less than this fraction:
+    private static final double MIN_REGRESSION_THRESHOLD = 0.1;
+    // A program is reported as slower only when its fastest time grew by more than this many times its noise:
+    private static final double NOISE_FACTOR = 2;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (arguments.size() == 3 && arguments.get(0).equals(FORK_ARGUMENT)) {
+            runFork(Paths.get(arguments.get(1)), Paths.get(arguments.get(2)));
+            return;
+        }
+
+        boolean updateBaseline = arguments.remove("--update-baseline");
+        boolean updateGolden = arguments.remove("--update-golden");
+        Path corpus = Paths.get(arguments.isEmpty() ? DEFAULT_CORPUS : arguments.get(0));
+
+        File[] programs = corpus.toFile().listFiles((directory, name) -> name.endsWith(".txt"));
+        if (programs == null || programs.length == 0)
+            throw new IllegalArgumentException("No programs found in " + corpus.toAbsolutePath());
+        Arrays.sort(programs);
+
+        ObjectMapper mapper = new ObjectMapper();
+        Path baselinePath = corpus.resolve(BASELINE_FILE);
+        Map<?, ?> baseline = Files.exists(baselinePath) ? mapper.readValue(baselinePath.toFile(), Map.class) : new LinkedHashMap<>();
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        boolean allPassed = true;
+
+        System.out.println(String.format("%-16s | %10s | %10s | %10s | %10s | %14s | %10s | %18s | %s",
+                "program", "min ms", "median ms", "prep ms", "interp ms", "lines/s", "MB/s", "baseline (limit)", "output"));
+
+        for (File program : programs) {
+            String name = program.getName().substring(0, program.getName().length() - ".txt".length());
+            Path goldenPath = corpus.resolve(name + ".expected");
+
+            List<Measurement> measurements = new ArrayList<>();
+            long[] forkMinimums = new long[FORKS];
+            String output = null;
+            for (int i = 0; i < FORKS; i++) {
+                Path outputPath = Files.createTempFile("ivrit-benchmark", ".out");
+                try {
+                    List<Measurement> forkMeasurements = fork(program.toPath(), outputPath);
+                    output = new String(Files.readAllBytes(outputPath), StandardCharsets.UTF_8);
+                    forkMeasurements.sort((first, second) -> Long.compare(first.wallNanos, second.wallNanos));
+                    forkMinimums[i] = forkMeasurements.get(0).wallNanos;
+                    measurements.addAll(forkMeasurements);
+                } finally {
+                    Files.deleteIfExists(outputPath);
+                }
+            }
+
+            if (updateGolden)
+                Files.write(goldenPath, output.getBytes(StandardCharsets.UTF_8));
+
+            String verdict;
+            if (!Files.exists(goldenPath)) {
+                verdict = "NO GOLDEN FILE";
+                allPassed = false;
+            } else if (!new String(Files.readAllBytes(goldenPath), StandardCharsets.UTF_8).equals(output)) {
+                verdict = "MISMATCH";
+                allPassed = false;
+            } else
+                verdict = "ok";
+
+            measurements.sort((first, second) -> Long.compare(first.wallNanos, second.wallNanos));
+            Measurement fastest = measurements.get(0);
+            Measurement median = measurements.get(measurements.size() / 2);
+            double minMillis = fastest.wallNanos / 1e6;
+            double linesPerSecond = fastest.statistics.getExecutedInstructions() / (fastest.statistics.getInterpretationNanos() / 1e9);
+
+            double noise = (double) (Arrays.stream(forkMinimums).max().getAsLong() - fastest.wallNanos) / fastest.wallNanos;
+            String comparison = "-";
+            Object baselineResult = baseline.get(name);
+            if (baselineResult instanceof Map && ((Map<?, ?>) baselineResult).get("minMs") instanceof Number) {
+                double baselineMillis = ((Number) ((Map<?, ?>) baselineResult).get("minMs")).doubleValue();
+                double change = (minMillis - baselineMillis) / baselineMillis;
+                Object baselineNoise = ((Map<?, ?>) baselineResult).get("noise");
+                double threshold = Math.max(MIN_REGRESSION_THRESHOLD, NOISE_FACTOR
+                        * Math.max(noise, baselineNoise instanceof Number ? ((Number) baselineNoise).doubleValue() : 0));
+                comparison = String.format("%+.1f%% (%.0f%%)", change * 100, threshold * 100) + (change > threshold ? " !" : "");
+            }
+
+            System.out.println(String.format("%-16s | %10.1f | %10.1f | %10.1f | %10.1f | %14.0f | %10.1f | %18s | %s",
+                    name, minMillis, median.wallNanos / 1e6, fastest.statistics.getPreprocessingNanos() / 1e6,
+                    fastest.statistics.getInterpretationNanos() / 1e6, linesPerSecond,
+                    fastest.allocatedBytes / (1024.0 * 1024.0) / (fastest.wallNanos / 1e9), comparison, verdict));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("minMs", Math.round(minMillis * 10) / 10.0);
+            result.put("noise", Math.round(noise * 1000) / 1000.0);
+            result.put("linesPerSecond", Math.round(linesPerSecond));
+            result.put("executedLines", fastest.statistics.getExecutedInstructions());
+            results.put(name, result);
+        }
+
+        if (updateBaseline)
+            mapper.writerWithDefaultPrettyPrinter().writeValue(baselinePath.toFile(), results);
+
+        if (!allPassed)
+            System.exit(1);
+    }
+
+    /**
+     * Runs a program in a new JVM (a fork of this benchmark).
+     * @param program - The path of the program.
+     * @param outputPath - The file the fork writes the output of the program to.
+     * @return the measurements of the measured runs of the fork.
+     */
+    private static List<Measurement> fork(Path program, Path outputPath) throws IOException, InterruptedException {
+        // Every fork gets the same fixed heap, so the garbage collector doesn't resize it differently in every fork:
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dfile.encoding=UTF-8", "-Xms512m", "-Xmx512m", "-cp", System.getProperty("java.class.path"), MacroBenchmark.class.getName(),
+                FORK_ARGUMENT, program.toString(), outputPath.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        List<Measurement> measurements = new ArrayList<>();
+        String results = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0)
+            throw new IllegalStateException("The fork that runs " + program + " failed:\n" + results);
+
+        for (String line : results.split("\n")) {
+            String[] fields = line.trim().split(" ");
+            measurements.add(new Measurement(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    new RunStatistics(Long.parseLong(fields[2]), Long.parseLong(fields[3]), Long.parseLong(fields[4])), null));
+        }
+
+        return measurements;
+    }
+
+    /**
+     * Runs a single program in this JVM (this is a fork), and prints a line for every measured run:
+     * its wall time, allocated bytes, preprocessing time, interpretation time and executed lines (the times are in nanoseconds).
+     * @param program - The path of the program.
+     * @param outputPath - The file the output of the program is written to.
+     */
+    private static void runFork(Path program, Path outputPath) throws IOException {
+        String name = program.getFileName().toString();
+        List<String> inputs = readInputs(program.resolveSibling(name.substring(0, name.length() - ".txt".length()) + ".input"));
+
+        Measurement measurement = null;
+        for (int i = 0; i < WARMUP_RUNS + MEASURED_RUNS; i++) {
+            measurement = run(program.toString(), inputs);
+            if (i >= WARMUP_RUNS)
+                System.out.println(measurement.wallNanos + " " + measurement.allocatedBytes + " " + measurement.statistics.getPreprocessingNanos()
+                        + " " + measurement.statistics.getInterpretationNanos() + " " + measurement.statistics.getExecutedInstructions());
+        }
+
+        Files.write(outputPath, measurement.output.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Runs a program once.
+     * @param path - The path of the program.
+     * @param inputs - The inputs the program gets.
+     * @return the measurement of the run.
+     */
+    private static Measurement run(String path, List<String> inputs) {
+        ScriptedIO io = new ScriptedIO(path, inputs);
+        FlowController controller = new FlowController(io, new FileSourceCodeLoader(), false, false);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        controller.startIvritInterpreter();
+        long wallNanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        RunStatistics statistics = controller.getLastRunStatistics();
+        if (statistics == null)
+            throw new IllegalStateException("The program " + path + " didn't finish:\n" + io.getOutput());
+
+        return new Measurement(wallNanos, allocated, statistics, io.getOutput());
+    }
+
+    /**
+     * @return the lines of the inputs file, or no inputs if there is no such file.
+     */
+    private static List<String> readInputs(Path path) throws IOException {
+        if (!Files.exists(path))
+            return new ArrayList<>();
+
+        return Files.readAllLines(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return how many bytes the current thread allocated so far, or 0 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return 0;
+    }
+
+    /**
+     * The measurements of a single run of a program.
+     */
+    private static class Measurement {
+        private final long wallNanos;
+        private final long allocatedBytes;
+        private final RunStatistics statistics;
+        private final String output;
+
+        Measurement(long wallNanos, long allocatedBytes, RunStatistics statistics, String output) {
+            this.wallNanos = wallNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.statistics = statistics;
+            this.output = output;
+        }
+    }
+
+    /**
+     * An IO object that records all the output, and answers the inputs from a fixed list.
+     */
+    private static class ScriptedIO implements IvritIO {
+        // The path of the program to run:
+        private final String path;
+        // The inputs that were not used yet:
+        private final Deque<String> inputs;
+        // Everything that was printed:
+        private final StringBuilder output;
+
+        ScriptedIO(String path, List<String> inputs) {
+            this.path = path;
+            this.inputs = new ArrayDeque<>(inputs);
+            this.output = new StringBuilder();
+        }
+
+        @Override
+        public void print(String message) {
+            this.output.append(message).append('\n');
+        }
+
+        @Override
+        public String getUserInput() {
+            return this.inputs.isEmpty() ? "" : this.inputs.poll();
+        }
+
+        @Override
+        public String getCode() {
+            return this.path;
+        }
+
+        String getOutput() {
+            return this.output.toString();
+        }
+    }
+}
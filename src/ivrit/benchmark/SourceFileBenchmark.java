@@ -0,0 +1,132 @@
+package ivrit.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import ivrit.interpreter.Interpreter;
+import ivrit.interpreter.Preprocessor;
+import ivrit.interpreter.SourceFile;
+import ivrit.interpreter.IvritStreams.JumpingSourceFileReader;
+import ivrit.interpreter.UserIO.IvritIO;
+
+/**
+ * Measures how the cost of reading every line of a program grows with the size of the program.
+ * The old LinkedList storage is measured next to the array backed SourceFile, so the quadratic growth
+ * of the first and the linear growth of the second can be seen side by side.
+ * Run it with: java ivrit.benchmark.SourceFileBenchmark [sizes...]
+ */
+public class SourceFileBenchmark {
+    // The program sizes (in lines) we measure when no sizes are given:
+    private static final int[] DEFAULT_SIZES = { 5000, 10000, 20000, 50000 };
+    // How many times each measurement is repeated (we report the fastest one):
+    private static final int REPETITIONS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++)
+                sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.println(String.format("%8s | %18s | %18s | %18s", "lines", "LinkedList ns/line", "SourceFile ns/line", "interpret ns/line"));
+        for (int size : sizes) {
+            List<String> lines = generateProgram(size);
+
+            long linkedListTime = Long.MAX_VALUE;
+            long sourceFileTime = Long.MAX_VALUE;
+            long interpretTime = Long.MAX_VALUE;
+            for (int i = 0; i < REPETITIONS; i++) {
+                linkedListTime = Math.min(linkedListTime, readLinkedList(new LinkedList<>(lines)));
+                sourceFileTime = Math.min(sourceFileTime, readSourceFile(new SourceFile(lines)));
+                interpretTime = Math.min(interpretTime, interpret(new SourceFile(lines)));
+            }
+
+            System.out.println(String.format("%8d | %18.1f | %18.1f | %18.1f", size,
+                    (double) linkedListTime / size, (double) sourceFileTime / size, (double) interpretTime / size));
+        }
+    }
+
+    /**
+     * @return a program with the given amount of lines, that executes every one of its lines exactly once.
+     */
+    private static List<String> generateProgram(int size) {
+        List<String> lines = new ArrayList<>(size);
+        lines.add("משתנה שלם מונה = 0");
+        while (lines.size() < size)
+            lines.add("מונה = 1");
+
+        return lines;
+    }
+
+    /**
+     * @return how many nanoseconds it took to read every line of the list, the same way the reader used to.
+     */
+    private static long readLinkedList(List<String> lines) {
+        long start = System.nanoTime();
+        int totalLength = 0;
+        for (int i = 0; i < lines.size(); i++)
+            totalLength += lines.get(i).length();
+
+        long time = System.nanoTime() - start;
+        blackhole(totalLength);
+        return time;
+    }
+
+    /**
+     * @return how many nanoseconds it took to read every line of the source file through a reader.
+     */
+    private static long readSourceFile(SourceFile sourceFile) throws Exception {
+        long start = System.nanoTime();
+        JumpingSourceFileReader reader = new JumpingSourceFileReader(sourceFile);
+        int totalLength = 0;
+        String line;
+        while ((line = reader.readLine()) != null)
+            totalLength += line.length();
+
+        long time = System.nanoTime() - start;
+        blackhole(totalLength);
+        return time;
+    }
+
+    /**
+     * @return how many nanoseconds it took to preprocess and interpret the given source file.
+     */
+    private static long interpret(SourceFile sourceFile) {
+        IvritIO io = new SilentIO();
+        long start = System.nanoTime();
+        Interpreter interpreter = new Interpreter(new Preprocessor(sourceFile, io).preprocess(), io);
+        interpreter.initializeGlobalVariables();
+        interpreter.start();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Makes sure the JIT can't remove the work we measured.
+     */
+    private static void blackhole(int value) {
+        if (value == 42)
+            System.out.print("");
+    }
+
+    /**
+     * An IO object that ignores all the output, so that we only measure the interpreter.
+     */
+    private static class SilentIO implements IvritIO {
+        @Override
+        public void print(String message) {
+            // We don't care about the output here.
+        }
+
+        @Override
+        public String getUserInput() {
+            return "";
+        }
+
+        @Override
+        public String getCode() {
+            return "";
+        }
+    }
+}
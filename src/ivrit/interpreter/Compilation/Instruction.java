@@ -0,0 +1,150 @@
+package ivrit.interpreter.Compilation;
+
+import ivrit.interpreter.Evaluation.Expression;
+
+/**
+ * A single line of a preprocessed Ivrit program, after it was parsed into an opcode and its operands.
+ */
+public class Instruction {
+    // What this instruction does (one of the constants in Opcodes):
+    private final int opcode;
+    // The already split parts of the line this instruction needs:
+    private final String[] operands;
+    // The parsed expressions of the operands that are expressions (null for operands that aren't):
+    private final Expression[] expressions;
+    // The line this instruction was compiled from (used in error messages):
+    private final String line;
+    // The error found while compiling the line (null unless this is an invalid instruction):
+    private final RuntimeException error;
+    // The line numbers this instruction may continue at (filled by the linker, -1 for a flag or function that doesn't exist):
+    private final int[] targets;
+    // The slot of the variable this instruction works on (-1 if it doesn't work on a variable):
+    private final int variableSlot;
+
+    /**
+     * Constructor.
+     * @param opcode - What this instruction does (one of the constants in Opcodes).
+     * @param operands - The already split parts of the line this instruction needs.
+     * @param line - The line this instruction was compiled from.
+     */
+    public Instruction(int opcode, String[] operands, String line) {
+        this(opcode, operands, null, line, null, null, -1);
+    }
+
+    /**
+     * Constructor.
+     * @param opcode - What this instruction does (one of the constants in Opcodes).
+     * @param operands - The already split parts of the line this instruction needs.
+     * @param expressions - The parsed expressions of the operands (expression i is the parsed operand i, or null if it isn't an expression).
+     * @param line - The line this instruction was compiled from.
+     */
+    public Instruction(int opcode, String[] operands, Expression[] expressions, String line) {
+        this(opcode, operands, expressions, line, null, null, -1);
+    }
+
+    /**
+     * Constructor.
+     * @param opcode - What this instruction does (one of the constants in Opcodes).
+     * @param operands - The already split parts of the line this instruction needs.
+     * @param line - The line this instruction was compiled from.
+     * @param error - The error found while compiling the line.
+     */
+    public Instruction(int opcode, String[] operands, String line, RuntimeException error) {
+        this(opcode, operands, null, line, error, null, -1);
+    }
+
+    /**
+     * Constructor.
+     * @param opcode - What this instruction does (one of the constants in Opcodes).
+     * @param operands - The already split parts of the line this instruction needs.
+     * @param expressions - The parsed expressions of the operands.
+     * @param line - The line this instruction was compiled from.
+     * @param error - The error found while compiling the line.
+     * @param targets - The line numbers this instruction may continue at.
+     * @param variableSlot - The slot of the variable this instruction works on.
+     */
+    private Instruction(int opcode, String[] operands, Expression[] expressions, String line, RuntimeException error, int[] targets, int variableSlot) {
+        this.opcode = opcode;
+        this.operands = operands;
+        this.expressions = expressions;
+        this.line = line;
+        this.error = error;
+        this.targets = targets;
+        this.variableSlot = variableSlot;
+    }
+
+    /**
+     * @param targets - The line numbers the new instruction may continue at.
+     * @return a copy of this instruction that also knows the line numbers it may continue at.
+     */
+    public Instruction linkedTo(int... targets) {
+        return new Instruction(this.opcode, this.operands, this.expressions, this.line, this.error, targets, this.variableSlot);
+    }
+
+    /**
+     * @param variableSlot - The slot of the variable the new instruction works on.
+     * @return a copy of this instruction that also knows the slot of the variable it works on.
+     */
+    public Instruction resolvedTo(int variableSlot) {
+        return new Instruction(this.opcode, this.operands, this.expressions, this.line, this.error, this.targets, variableSlot);
+    }
+
+    /**
+     * @return what this instruction does (one of the constants in Opcodes).
+     */
+    public int getOpcode() {
+        return this.opcode;
+    }
+
+    /**
+     * @param index - The index of the operand.
+     * @return the operand at the given index.
+     */
+    public String getOperand(int index) {
+        return this.operands[index];
+    }
+
+    /**
+     * @param index - The index of the operand.
+     * @return the parsed expression of the operand at the given index.
+     */
+    public Expression getExpression(int index) {
+        return this.expressions[index];
+    }
+
+    /**
+     * @return the number of operands this instruction has.
+     */
+    public int getOperandsCount() {
+        return this.operands.length;
+    }
+
+    /**
+     * @param index - The index of the target.
+     * @return the line number at the given index of the targets of this instruction (-1 if the target doesn't exist).
+     */
+    public int getTarget(int index) {
+        return this.targets[index];
+    }
+
+    /**
+     * @return the slot of the variable this instruction works on (-1 if it doesn't work on a variable).
+     */
+    public int getVariableSlot() {
+        return this.variableSlot;
+    }
+
+    /**
+     * @return the line this instruction was compiled from.
+     */
+    public String getLine() {
+        return this.line;
+    }
+
+    /**
+     * @return the error found while compiling the line of this instruction, or null if there wasn't any.
+     */
+    public RuntimeException getError() {
+        return this.error;
+    }
+}
@@ -0,0 +1,341 @@
+package ivrit.interpreter.Compilation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import ivrit.interpreter.Interpreter;
+import ivrit.interpreter.InterpreterCommands;
+import ivrit.interpreter.SourceFile;
+import ivrit.interpreter.Evaluation.Expression;
+import ivrit.interpreter.Evaluation.ExpressionParser;
+import ivrit.interpreter.Evaluation.InvalidExpression;
+import ivrit.interpreter.Variables.SymbolTable;
+
+/**
+ * Turns the lines of a preprocessed file into instructions, so that each line is parsed only once
+ * (instead of every time it is executed).
+ * The instruction at index i of the result is the compiled version of line i of the file,
+ * so line numbers (used by jumps and function calls) are also instruction numbers.
+ * The expressions of each line are also parsed here, so they are only evaluated while interpreting,
+ * and every variable name is resolved to its slot.
+ */
+public class InstructionCompiler {
+    // Used for instructions that don't need any operands:
+    private static final String[] NO_OPERANDS = new String[0];
+
+    // Gives every variable name its slot:
+    private SymbolTable symbols;
+
+    /**
+     * Constructor.
+     * @param symbols - Gives every variable name its slot.
+     */
+    public InstructionCompiler(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Compiles every line of the given preprocessed file.
+     * A line that can't be compiled becomes an invalid instruction, which throws the error only if it is executed.
+     * @param preprocessedFile - The file to compile.
+     * @param elseFlags - Maps between the index of every If-Statement line and the jump flag its "else" part starts at.
+     * @return an array that contains the compiled instruction of every line, in the same order.
+     */
+    public Instruction[] compile(SourceFile preprocessedFile, Map<Integer, String> elseFlags) {
+        Instruction[] program = new Instruction[preprocessedFile.getSourceFileSize()];
+        for (int lineIndex = 0; lineIndex < program.length; lineIndex++) {
+            program[lineIndex] = resolveVariable(compileLine(preprocessedFile.getLine(lineIndex), elseFlags.get(lineIndex)));
+        }
+
+        return program;
+    }
+
+    /**
+     * @param instruction - A compiled instruction.
+     * @return the given instruction, with the slot of the variable it works on (if it works on one, it is always its first operand).
+     */
+    private Instruction resolveVariable(Instruction instruction) {
+        switch (instruction.getOpcode()) {
+            case Opcodes.VARIABLE:
+            case Opcodes.CONSTANT:
+            case Opcodes.DELETE:
+            case Opcodes.INPUT:
+            case Opcodes.ADD:
+            case Opcodes.REMOVE:
+            case Opcodes.ASSIGN:
+            case Opcodes.ASSIGN_ADD:
+            case Opcodes.ASSIGN_SUBTRACT:
+            case Opcodes.ASSIGN_MULTIPLY:
+            case Opcodes.ASSIGN_DIVIDE:
+            case Opcodes.ASSIGN_LIST_ITEM:
+            case Opcodes.INVALID_ASSIGNMENT:
+                return instruction.resolvedTo(this.symbols.slotOf(instruction.getOperand(0)));
+            default:
+                return instruction;
+        }
+    }
+
+    /**
+     * @param line - The line to compile.
+     * @param elseFlag - The jump flag the "else" part of the line starts at, if it is an If-Statement (null otherwise).
+     * @return the instruction the given line compiles to.
+     */
+    private Instruction compileLine(String line, String elseFlag) {
+        if (line.charAt(0) == Interpreter.JUMP_FLAG_CHAR)
+            return new Instruction(Opcodes.LABEL, new String[] { line.substring(1) }, line);
+
+        //The first word of each line tells us what the line does (print, if, create a variable, etc...)
+        int endAt = line.indexOf(' ');
+        if (endAt == -1) //Handle the case where the line only has one word:
+            endAt = line.length();
+        String action = line.substring(0, endAt);
+        InterpreterCommands command = InterpreterCommands.fromString(action);
+
+        if (command == null) // action is not a command, so it should be an assignment to a variable:
+            return compileAssignment(line, action, endAt);
+
+        try {
+            switch (command) {
+                case PRINT:
+                    return withExpressions(Opcodes.PRINT, new String[] { line.substring(endAt + 1) }, line, 0);
+                case VARIABLE:
+                    return withExpressions(Opcodes.VARIABLE, splitVariableInfo(line.substring(endAt + 1)), line, 2);
+                case CONSTANT:
+                    return withExpressions(Opcodes.CONSTANT, splitVariableInfo(line.substring(endAt + 1)), line, 2);
+                case DELETE:
+                    return new Instruction(Opcodes.DELETE, new String[] { line.substring(endAt + 1).trim() }, line);
+                case IF:
+                    return withExpressions(Opcodes.IF, splitIfInfo(line, elseFlag), line, 0);
+                case JUMP:
+                    return new Instruction(Opcodes.JUMP, new String[] { line.substring(endAt + 1) }, line);
+                case CALL:
+                    return compileCall(line, line.substring(endAt + 1));
+                case RETURN:
+                    return new Instruction(Opcodes.RETURN, NO_OPERANDS, line);
+                case INPUT:
+                    return new Instruction(Opcodes.INPUT, new String[] { line.substring(endAt + 1) }, line);
+                case ADD:
+                    return withExpressions(Opcodes.ADD, splitAddInfo(line.substring(5).trim()), line, 2);
+                case REMOVE:
+                    return new Instruction(Opcodes.REMOVE, splitRemoveInfo(line.substring(4).trim()), line);
+                case EXIT:
+                    return new Instruction(Opcodes.EXIT, NO_OPERANDS, line);
+                default:
+                    throw new UnsupportedOperationException("שגיאה: הפירוש נתקע במילה הלא מוכרת '" + action + "' בשורה '" + line + "'");
+            }
+        } catch (RuntimeException exception) {
+            return new Instruction(Opcodes.INVALID, NO_OPERANDS, line, exception);
+        }
+    }
+
+    /**
+     * @return Splits the information about the variable to 4 tokens and returns them as an array:
+     * [0]: the name of the variable.
+     * [1]: the type of the variable.
+     * [2]: the value of the variable.
+     * [3]: true IFF the info belongs to a list variable.
+     */
+    private String[] splitVariableInfo(String variableInfo) {
+        String original = variableInfo;
+        try {
+            String[] infoTokens = new String[4];
+            int cutAt = variableInfo.indexOf(' ');
+
+            String firstWord = variableInfo.substring(0, cutAt).trim(); // either a type string or a list string.
+
+            if (firstWord.equals("רשימה")) {
+                variableInfo = variableInfo.substring(cutAt + 1).trim(); // ignore the word: רשימה
+                cutAt = variableInfo.indexOf(' '); // search where the type word finishes
+                infoTokens[1] = variableInfo.substring(0, cutAt).trim();
+                variableInfo = variableInfo.substring(cutAt + 1).trim(); // ignore the type word
+                cutAt = variableInfo.indexOf('=');
+                infoTokens[0] = variableInfo.substring(0, cutAt - 1).trim();
+                infoTokens[2] = variableInfo.substring(cutAt + 1).trim();
+                infoTokens[3] = "true";
+
+            } else { // regular variables (non lists)
+                infoTokens[1] = firstWord;
+                variableInfo = variableInfo.substring(cutAt + 1).trim();
+                cutAt = variableInfo.indexOf('=');
+                infoTokens[0] = variableInfo.substring(0, cutAt - 1).trim();
+                infoTokens[2] = variableInfo.substring(cutAt + 1).trim();
+                infoTokens[3] = "false";
+            }
+
+            return infoTokens;
+        } catch (Exception e) {
+            throw new UncheckedIOException("שגיאה: נמצאה שגיאה בפענוח השורה '" + original + "'. ודאו שהשורה מתאימה לפורמט: משתנה טיפוס שם = ערך.", new IOException());
+        }
+    }
+
+    /**
+     * @param line - The line of the if statement (the preprocessor leaves it as 'אם condition').
+     * @param elseFlag - The jump flag the "else" part of the if statement starts at (null if the preprocessor didn't give one).
+     * @return the parts of the if statement: [condition, elseFlag].
+     * @throws IllegalArgumentException if the condition or the "else" part is missing.
+     */
+    private String[] splitIfInfo(String line, String elseFlag) {
+        if (elseFlag == null || !line.startsWith("אם "))
+            throw new IllegalArgumentException("שגיאה: חסר תנאי אחרי 'אם' בשורה '" + line + "'.");
+
+        return new String[] { line.substring(3).trim(), elseFlag };
+    }
+
+    /**
+     * @param line - The whole line of the call.
+     * @param callLine - The part of the line that contains which function was called and with what arguments.
+     * @return the instruction of the function call.
+     */
+    private Instruction compileCall(String line, String callLine) {
+        String original = callLine;
+        int functionNameEndIndex = callLine.indexOf(' ');
+        if (functionNameEndIndex == -1) // A call without arguments
+            return new Instruction(Opcodes.CALL, new String[] { callLine }, line);
+
+        // A call with arguments. We need to extract them first.
+        String functionName = callLine.substring(0, functionNameEndIndex).trim();
+        callLine = callLine.substring(functionNameEndIndex + 1).trim();
+        if (!callLine.startsWith("עם"))
+            throw new IllegalArgumentException("שגיאה: נמצאה קריאה לפונקציה עם ארגומנטים אך ללא המילה עם בשורה '" + original + "'.");
+        callLine = callLine.substring(3).trim();
+        String[] args = callLine.split(","); //TODO: but this splits strings that include , incorrectly...
+
+        String[] operands = new String[args.length + 1];
+        operands[0] = functionName;
+        for (int i = 0; i < args.length; i++)
+            operands[i + 1] = args[i].trim();
+
+        Expression[] expressions = new Expression[operands.length];
+        for (int i = 1; i < operands.length; i++)
+            expressions[i] = parseExpression(operands[i]);
+
+        return new Instruction(Opcodes.CALL_WITH_ARGUMENTS, operands, expressions, line);
+    }
+
+    /**
+     * @param line - The line the describes what value to add, where to add it, and to which list to add it.
+     * @return the parts of the add action: [listName, index, value]. The index is "1" for the start of the list and "end" for its end.
+     */ //TODO: make sure this works with lists of strings that contain spaces
+    private String[] splitAddInfo(String line) {
+        String target = line.substring(line.lastIndexOf(' ')+1).trim();
+        line = line.substring(0, line.lastIndexOf(' ')).trim();
+
+        if (line.endsWith("לתחילת") || line.endsWith("בתחילת")) {
+            line = line.substring(0, line.lastIndexOf(' ')).trim();
+            return new String[] { target, "1", line };
+
+        } else if (line.endsWith("לסוף") || line.endsWith("בסוף")) {
+            line = line.substring(0, line.lastIndexOf(' ')).trim();
+            return new String[] { target, "end", line };
+
+        } else if (line.endsWith("של")) { // adding to the middle of a list
+            line = line.substring(0, line.lastIndexOf(' ')).trim();
+            String[] values = line.split("במקום");
+            return new String[] { target, values[1].trim(), values[0].trim() };
+
+        } else {
+            throw new UnsupportedOperationException("שגיאה: הפירוש נתקע בקטע הלא החוקי '" + line + "' בזמן הוספה לרשימה.");
+        }
+    }
+
+    /**
+     * @param line - The line the describes which value to remove, and from which list.
+     * @return the parts of the remove action: [listName, index]. The index is "1" for the start of the list and "end" for its end.
+     */
+    private String[] splitRemoveInfo(String line) {
+        String target = line.substring(line.lastIndexOf(' ') + 1).trim();
+        line = line.substring(0, line.lastIndexOf(' ')).trim();
+
+        if (line.endsWith("מתחילת")) {
+            return new String[] { target, "1" };
+
+        } else if (line.endsWith("מסוף")) {
+            return new String[] { target, "end" };
+
+        } else if (line.endsWith("של")) { // removing from the middle of a list
+            line = line.substring(0, line.lastIndexOf(' ')).trim();
+            return new String[] { target, line.substring(line.lastIndexOf(' ')).trim() };
+
+        } else {
+            throw new UnsupportedOperationException(
+                    "שגיאה: הפירוש נתקע בקטע הלא החוקי '" + line + "' בזמן הסרה לרשימה.");
+        }
+    }
+
+    /**
+     * Compiles a line that doesn't start with a command, which means it should be an assignment.
+     * Whether the first word is really a variable can only be checked while interpreting.
+     * @param line - The line to compile.
+     * @param variableName - The first word of the line (the name of the variable we assign to).
+     * @param endAt - The index where the first word ends.
+     * @return the instruction of the assignment.
+     */
+    private Instruction compileAssignment(String line, String variableName, int endAt) {
+        try {
+            String data = line.substring(endAt + 1);
+            if (data.startsWith("במקום")) {
+                // We are trying to assign inside a list:
+                data = data.substring(6); // ignore במקום
+                int charAt = data.indexOf('=');
+                if (charAt == -1)
+                    throw new UnsupportedOperationException("שגיאה: נמצאה השמה של המשתנה '" + variableName + "' שבה לא היה הסימן שווה (=).");
+
+                return withExpressions(Opcodes.ASSIGN_LIST_ITEM, new String[] { variableName, data.substring(0, charAt).trim(), data.substring(charAt+1).trim() }, line, 1, 2);
+            }
+
+            // Assignment of a regular variable:
+            char assignmentType = data.charAt(0);
+            data = data.substring(1).trim();
+
+            switch (assignmentType) {
+                case '=':
+                    // Normal assignment:
+                    return withExpressions(Opcodes.ASSIGN, new String[] { variableName, data }, line, 1);
+                case '+':
+                    // Additive compound assignment:
+                    return withExpressions(Opcodes.ASSIGN_ADD, new String[] { variableName, data.substring(1).trim() }, line, 1);
+                case '-':
+                    // Subtractive compound assignment:
+                    return withExpressions(Opcodes.ASSIGN_SUBTRACT, new String[] { variableName, data.substring(1).trim() }, line, 1);
+                case '*':
+                    // Multiplicative compound assignment:
+                    return withExpressions(Opcodes.ASSIGN_MULTIPLY, new String[] { variableName, data.substring(1).trim() }, line, 1);
+                case '/':
+                    // Divisitive compound assignment:
+                    return withExpressions(Opcodes.ASSIGN_DIVIDE, new String[] { variableName, data.substring(1).trim() }, line, 1);
+                default:
+                    throw new UnsupportedOperationException("שגיאה: התו " + assignmentType + " אינו חוקי לפני התו '=' בפעולת השמה בקטע " + data);
+            }
+        } catch (RuntimeException exception) {
+            return new Instruction(Opcodes.INVALID_ASSIGNMENT, new String[] { variableName }, line, exception);
+        }
+    }
+
+    /**
+     * @param opcode - What the instruction does (one of the constants in Opcodes).
+     * @param operands - The already split parts of the line.
+     * @param line - The line to compile.
+     * @param expressionIndexes - The indexes of the operands that are expressions.
+     * @return an instruction with the given operands, that also has the parsed expressions of the given operands.
+     */
+    private Instruction withExpressions(int opcode, String[] operands, String line, int... expressionIndexes) {
+        Expression[] expressions = new Expression[operands.length];
+        for (int index : expressionIndexes)
+            expressions[index] = parseExpression(operands[index]);
+
+        return new Instruction(opcode, operands, expressions, line);
+    }
+
+    /**
+     * @param expression - The expression to parse.
+     * @return the parsed expression. If it can't be parsed, an expression that throws the error only when it is evaluated.
+     */
+    private Expression parseExpression(String expression) {
+        try {
+            return new ExpressionParser(expression, this.symbols).parse();
+        } catch (RuntimeException exception) {
+            return new InvalidExpression(exception);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ivrit.interpreter.Compilation;
+
+import ivrit.interpreter.Jumper;
+
+/**
+ * Replaces the jump flags and function names used by the instructions with the line numbers they point to,
+ * so taking a jump or calling a function while interpreting doesn't need any lookups.
+ */
+public class InstructionLinker {
+    // The jumper that knows where every jump flag and function is:
+    private Jumper jumper;
+
+    /**
+     * Constructor.
+     * @param jumper - The jumper that knows where every jump flag and function is.
+     */
+    public InstructionLinker(Jumper jumper) {
+        this.jumper = jumper;
+    }
+
+    /**
+     * Links every instruction that jumps in the given program.
+     * A flag or a function that doesn't exist is linked to -1, and only fails if it's actually used.
+     * @param program - The compiled program to link.
+     * @return the same array, after every jumping instruction in it was replaced by its linked version.
+     */
+    public Instruction[] link(Instruction[] program) {
+        for (int i = 0; i < program.length; i++) {
+            Instruction instruction = program[i];
+            switch (instruction.getOpcode()) {
+                case Opcodes.IF:
+                    // Targets: [elseLine]
+                    program[i] = instruction.linkedTo(this.jumper.getJumpFlagLine(instruction.getOperand(1)));
+                    break;
+                case Opcodes.JUMP:
+                    program[i] = instruction.linkedTo(this.jumper.getJumpFlagLine(instruction.getOperand(0)));
+                    break;
+                case Opcodes.CALL:
+                case Opcodes.CALL_WITH_ARGUMENTS:
+                    program[i] = instruction.linkedTo(this.jumper.getFunctionLine(instruction.getOperand(0)));
+                    break;
+                default:
+                    // This instruction doesn't jump anywhere.
+            }
+        }
+
+        return program;
+    }
+}
@@ -0,0 +1,58 @@
+package ivrit.interpreter.Compilation;
+
+/**
+ * The opcodes of the instructions the interpreter executes.
+ * They are dense integers so that the interpreter can dispatch on them using a simple switch.
+ */
+public final class Opcodes {
+    // A line that marks a place we can jump to (starts with @). Operands: [flag].
+    public static final int LABEL = 0;
+    // Operands: [expression].
+    public static final int PRINT = 1;
+    // Operands: [name, type, value, isList].
+    public static final int VARIABLE = 2;
+    // Operands: [name, type, value, isList].
+    public static final int CONSTANT = 3;
+    // Operands: [name].
+    public static final int DELETE = 4;
+    // Operands: [condition, elseFlag].
+    public static final int IF = 5;
+    // Operands: [flag].
+    public static final int JUMP = 6;
+    // A call to a function without arguments. Operands: [functionName].
+    public static final int CALL = 7;
+    // A call to a function with arguments. Operands: [functionName, argument1, argument2, ...].
+    public static final int CALL_WITH_ARGUMENTS = 8;
+    // No operands.
+    public static final int RETURN = 9;
+    // Operands: [name].
+    public static final int INPUT = 10;
+    // Operands: [listName, index, value].
+    public static final int ADD = 11;
+    // Operands: [listName, index].
+    public static final int REMOVE = 12;
+    // No operands.
+    public static final int EXIT = 13;
+    // Operands: [name, expression].
+    public static final int ASSIGN = 14;
+    // Operands: [name, expression].
+    public static final int ASSIGN_ADD = 15;
+    // Operands: [name, expression].
+    public static final int ASSIGN_SUBTRACT = 16;
+    // Operands: [name, expression].
+    public static final int ASSIGN_MULTIPLY = 17;
+    // Operands: [name, expression].
+    public static final int ASSIGN_DIVIDE = 18;
+    // Operands: [listName, index, expression].
+    public static final int ASSIGN_LIST_ITEM = 19;
+    // A line that couldn't be compiled. Executing it throws the error found while compiling it. No operands.
+    public static final int INVALID = 20;
+    // An assignment that couldn't be compiled. Operands: [name].
+    public static final int INVALID_ASSIGNMENT = 21;
+
+    /**
+     * This class only holds constants.
+     */
+    private Opcodes() {
+    }
+}
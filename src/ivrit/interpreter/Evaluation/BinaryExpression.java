@@ -0,0 +1,33 @@
+package ivrit.interpreter.Evaluation;
+
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.VariablesController;
+
+/**
+ * An expression of the form: left operator right.
+ */
+public class BinaryExpression implements Expression {
+    // The operator between the two expressions:
+    private final Operator operator;
+    // The expression on the left of the operator:
+    private final Expression left;
+    // The expression on the right of the operator:
+    private final Expression right;
+
+    /**
+     * Constructor.
+     * @param operator - The operator between the two expressions.
+     * @param left - The expression on the left of the operator.
+     * @param right - The expression on the right of the operator.
+     */
+    public BinaryExpression(Operator operator, Expression left, Expression right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public Value evaluate(VariablesController variablesController) {
+        return this.operator.apply(this.left.evaluate(variablesController), this.right.evaluate(variablesController));
+    }
+}
@@ -1,11 +1,10 @@
 package ivrit.interpreter.Evaluation;
 
-import ivrit.interpreter.Variables.BooleanVariable;
-import ivrit.interpreter.Variables.StringVariable;
+import ivrit.interpreter.Variables.Value;
 import ivrit.interpreter.Variables.VariablesController;
 
 /**
- * Handles evaluating a string based on its expected value type.
+ * Handles evaluating expressions using the current values of the variables of the program.
  */
 public class EvaluationController {
     //Contains the variables of the program:
@@ -20,31 +19,20 @@ public class EvaluationController {
     }
 
     /**
-     * Evaluates a given data string.
-     * @param data - The data to evaluate.
-     * @return the evaluated value of the given string (still represented as a string).
+     * Evaluates an already parsed expression.
+     * @param expression - The expression to evaluate.
+     * @return the value of the given expression.
      */
-    public String evaluate(String data) {
-        // We first switch all variables with their values, so now we only deal with the values themselves:
-        VariableValueSwapper swapper = new VariableValueSwapper(this.variablesController);
-        data = swapper.swap(data);
-
-        Evaluator evaluator;
-        
-        //Find the correct evaluator type:
-        if (BooleanVariable.containsBooleanExpression(data)) { 
-            //Boolean evaluator:
-            evaluator = new BooleanEvaluator();
-
-        } else if (StringVariable.containsLiteralStrings(data)) { 
-            //Strings evaluator (only one part of the line has to be a string for it to count here):
-            evaluator = new StringEvaluator();
-
-        } else {
-            //Numerics evaluator:
-            evaluator = new NumericEvaluator();
-        }
+    public Value evaluate(Expression expression) {
+        return expression.evaluate(this.variablesController);
+    }
 
-        return evaluator.evaluate(data);
+    /**
+     * Parses and evaluates a given data string (used for data that is only known while interpreting, like inputs).
+     * @param data - The data to evaluate.
+     * @return the evaluated value of the given string.
+     */
+    public Value evaluate(String data) {
+        return evaluate(new ExpressionParser(data, this.variablesController.getSymbols()).parse());
     }
 }
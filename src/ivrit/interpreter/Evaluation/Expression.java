@@ -0,0 +1,16 @@
+package ivrit.interpreter.Evaluation;
+
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.VariablesController;
+
+/**
+ * A node in the tree of an already parsed expression.
+ * Each expression is parsed once (when its line is compiled), and then evaluated every time the line is executed.
+ */
+public interface Expression {
+    /**
+     * @param variablesController - Contains the variables of the program.
+     * @return the value of this expression.
+     */
+    public Value evaluate(VariablesController variablesController);
+}
@@ -0,0 +1,219 @@
+package ivrit.interpreter.Evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ivrit.interpreter.IvritExceptions.UnevenBracketsException;
+import ivrit.interpreter.Variables.SymbolTable;
+import ivrit.interpreter.Variables.Value;
+
+/**
+ * Parses an expression into a tree of expressions, so it can be evaluated many times without parsing it again.
+ * Operators with a higher precedence are computed first, so brackets are only needed to change the order:
+ * או, then וגם, then שווה and לא-שווה, then > and <, then + and -, then * / and %, and במקום is computed first.
+ */
+public class ExpressionParser {
+    // The expression we parse (used in error messages):
+    private final String expression;
+    // Gives every variable name its slot:
+    private final SymbolTable symbols;
+    // The words, values, operators and brackets of the expression, in their order:
+    private List<String> tokens;
+    // The index of the next token to parse:
+    private int position;
+
+    /**
+     * Constructor.
+     * @param expression - The expression to parse.
+     * @param symbols - Gives every variable name its slot.
+     */
+    public ExpressionParser(String expression, SymbolTable symbols) {
+        this.expression = expression;
+        this.symbols = symbols;
+    }
+
+    /**
+     * @return the tree of the expression.
+     * @throws UnevenBracketsException when the brackets (or quotation marks) of the expression are not balanced.
+     * @throws IllegalArgumentException when the expression is empty, or when it isn't in the form: value, operator, value, operator...
+     */
+    public Expression parse() {
+        this.tokens = tokenize();
+        this.position = 0;
+        if (this.tokens.isEmpty())
+            throw new IllegalArgumentException("שגיאה: חסר ערך בקטע '" + this.expression + "'.");
+
+        Expression result = parseLevel(1);
+        if (this.position < this.tokens.size()) {
+            String token = this.tokens.get(this.position);
+            if (token.equals(")"))
+                throw new UnevenBracketsException(this.expression);
+
+            throw new IllegalArgumentException("שגיאה: בעיה בפרומט בקטע '" + this.expression + "'. נמצא '" + token + "' במקום שבו צפויה פעולה.");
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses the values and operators from the current token onwards, that have the given precedence (or higher).
+     * @param precedence - The lowest precedence of an operator this part of the expression may contain.
+     * @return the tree of this part of the expression.
+     */
+    private Expression parseLevel(int precedence) {
+        if (precedence > Operator.MAX_PRECEDENCE)
+            return parseValue();
+
+        Expression first = parseLevel(precedence + 1);
+        Operator operator = nextOperator(precedence);
+        if (operator == null)
+            return first;
+
+        if (!operator.isArithmetic()) {
+            // These operators are computed from left to right:
+            Expression result = first;
+            while ((operator = nextOperator(precedence)) != null) {
+                this.position++;
+                result = new BinaryExpression(operator, result, parseLevel(precedence + 1));
+            }
+
+            return result;
+        }
+
+        // Arithmetic operators are computed from right to left, so we need the whole chain first:
+        List<Expression> operands = new ArrayList<>();
+        List<Operator> operators = new ArrayList<>();
+        operands.add(first);
+        while ((operator = nextOperator(precedence)) != null) {
+            this.position++;
+            operators.add(operator);
+            operands.add(parseLevel(precedence + 1));
+        }
+
+        if (operators.size() == 1)
+            return new BinaryExpression(operators.get(0), operands.get(0), operands.get(1));
+
+        return new OperationChainExpression(operands.toArray(new Expression[0]), operators.toArray(new Operator[0]));
+    }
+
+    /**
+     * Parses a single value: a literal, a variable, or an expression in brackets.
+     * @return the tree of the value.
+     */
+    private Expression parseValue() {
+        if (this.position == this.tokens.size())
+            throw new IllegalArgumentException("שגיאה: בעיה בפרומט בקטע '" + this.expression + "'. הקטע הסתיים במקום שבו צפוי ערך.");
+
+        String token = this.tokens.get(this.position++);
+        if (token.equals("(")) {
+            Expression result = parseLevel(1);
+            if (this.position == this.tokens.size() || !this.tokens.get(this.position).equals(")"))
+                throw new UnevenBracketsException(this.expression);
+
+            this.position++;
+            return result;
+        }
+
+        if (token.equals(")"))
+            throw new UnevenBracketsException(this.expression);
+
+        if (Operator.fromString(token) != null)
+            throw new IllegalArgumentException("שגיאה: בעיה בפרומט בקטע '" + this.expression + "'. נמצאה הפעולה '" + token + "' במקום שבו צפוי ערך.");
+
+        Value literal = Value.fromLiteralText(token);
+        if (literal != null)
+            return new LiteralExpression(literal);
+
+        return new VariableExpression(token, this.symbols.slotOf(token));
+    }
+
+    /**
+     * @param precedence - The precedence of the operator we look for.
+     * @return the operator at the current token if it has the given precedence, null otherwise.
+     */
+    private Operator nextOperator(int precedence) {
+        if (this.position == this.tokens.size())
+            return null;
+
+        Operator operator = Operator.fromString(this.tokens.get(this.position));
+        if (operator == null || operator.getPrecedence() != precedence)
+            return null;
+
+        return operator;
+    }
+
+    /**
+     * Splits the expression to its tokens: words (values, variables and operators), string literals, list literals, and brackets.
+     * The operators + * / % > < don't have to be separated from their values by spaces, and neither does - (unless it is the sign of a number).
+     * @return the tokens of the expression, in their order.
+     * @throws UnevenBracketsException when a string literal or a list literal isn't closed.
+     */
+    private List<String> tokenize() {
+        List<String> result = new ArrayList<>();
+        String data = this.expression;
+        int start = -1; // the start of the current word, or -1 when we are not in a word.
+        int index = 0;
+
+        while (index < data.length()) {
+            char ch = data.charAt(index);
+
+            if (ch == '"' || ch == '[') {
+                //String and list literals are a single token (even if they contain spaces):
+                if (start != -1) {
+                    result.add(data.substring(start, index));
+                    start = -1;
+                }
+
+                int endAt = (ch == '"') ? data.indexOf('"', index + 1) : listLiteralEnd(index);
+                if (endAt == -1)
+                    throw new UnevenBracketsException(this.expression);
+
+                result.add(data.substring(index, endAt + 1));
+                index = endAt + 1;
+                continue;
+            }
+
+            boolean isSeparator = Character.isWhitespace(ch) || ch == '(' || ch == ')'
+                    || ch == '+' || ch == '*' || ch == '/' || ch == '%' || ch == '>' || ch == '<'
+                    || (ch == '-' && start != -1 && !data.substring(start, index).equals("לא"));
+
+            if (!isSeparator) {
+                if (start == -1)
+                    start = index;
+
+            } else {
+                if (start != -1) {
+                    result.add(data.substring(start, index));
+                    start = -1;
+                }
+
+                if (!Character.isWhitespace(ch))
+                    result.add(String.valueOf(ch));
+            }
+
+            index++;
+        }
+
+        if (start != -1)
+            result.add(data.substring(start));
+
+        return result;
+    }
+
+    /**
+     * @param listStart - The index of the [ that starts a list literal.
+     * @return the index of the ] that closes the list literal (ignoring brackets inside strings), or -1 if it isn't closed.
+     */
+    private int listLiteralEnd(int listStart) {
+        boolean inQuotes = false;
+        for (int i = listStart + 1; i < this.expression.length(); i++) {
+            char ch = this.expression.charAt(i);
+            if (ch == '"')
+                inQuotes = !inQuotes;
+            else if (ch == ']' && !inQuotes)
+                return i;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,29 @@
+package ivrit.interpreter.Evaluation;
+
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.VariablesController;
+
+/**
+ * An expression that couldn't be parsed.
+ * The error is only thrown when the expression is evaluated, so a line that is never executed doesn't stop the program.
+ */
+public class InvalidExpression implements Expression {
+    // The error found while parsing the expression:
+    private final RuntimeException error;
+
+    /**
+     * Constructor.
+     * @param error - The error found while parsing the expression.
+     */
+    public InvalidExpression(RuntimeException error) {
+        this.error = error;
+    }
+
+    /**
+     * @throws RuntimeException the error found while parsing the expression.
+     */
+    @Override
+    public Value evaluate(VariablesController variablesController) {
+        throw this.error;
+    }
+}
@@ -0,0 +1,25 @@
+package ivrit.interpreter.Evaluation;
+
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.VariablesController;
+
+/**
+ * An expression that is a literal value written in the code (like 5, "שלום" or אמת).
+ */
+public class LiteralExpression implements Expression {
+    // The value that was written in the code:
+    private final Value value;
+
+    /**
+     * Constructor.
+     * @param value - The value that was written in the code.
+     */
+    public LiteralExpression(Value value) {
+        this.value = value;
+    }
+
+    @Override
+    public Value evaluate(VariablesController variablesController) {
+        return this.value;
+    }
+}
@@ -0,0 +1,72 @@
+package ivrit.interpreter.Evaluation;
+
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.VariablesController;
+
+/**
+ * An expression of more than two values with arithmetic operators of the same precedence between them (like: 1 + 2 - 3).
+ * Since Ivrit is read from right to left, the chain is computed from its right end to its left end:
+ * (1 - 2 - 3) is 3 - 2 - 1.
+ * A chain of additions that contains a string is a concatenation of all of its values, from left to right.
+ */
+public class OperationChainExpression implements Expression {
+    // The values of the chain (there is one more operand than operators):
+    private final Expression[] operands;
+    // The operators of the chain (operator i is between operand i and operand i + 1):
+    private final Operator[] operators;
+    // true IFF all the operators of the chain are additions (so the chain might be a concatenation):
+    private final boolean onlyAdditions;
+
+    /**
+     * Constructor.
+     * @param operands - The values of the chain.
+     * @param operators - The operators of the chain (operator i is between operand i and operand i + 1).
+     */
+    public OperationChainExpression(Expression[] operands, Operator[] operators) {
+        this.operands = operands;
+        this.operators = operators;
+
+        boolean onlyAdditions = true;
+        for (Operator operator : operators)
+            onlyAdditions &= (operator == Operator.ADD);
+        this.onlyAdditions = onlyAdditions;
+    }
+
+    @Override
+    public Value evaluate(VariablesController variablesController) {
+        if (this.onlyAdditions)
+            return evaluateAdditions(variablesController);
+
+        Value result = this.operands[this.operands.length - 1].evaluate(variablesController);
+        for (int i = this.operators.length - 1; i >= 0; i--)
+            result = this.operators[i].apply(this.operands[i].evaluate(variablesController), result);
+
+        return result;
+    }
+
+    /**
+     * @return the value of a chain that only contains additions (a concatenation if one of its values is a string).
+     */
+    private Value evaluateAdditions(VariablesController variablesController) {
+        Value[] values = new Value[this.operands.length];
+        boolean containsString = false;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.operands[i].evaluate(variablesController);
+            containsString |= (values[i].getType() == Value.Type.STRING);
+        }
+
+        if (containsString) {
+            StringBuilder result = new StringBuilder();
+            for (Value value : values)
+                result.append(value.toConcatenationText());
+
+            return Value.ofString(result.toString());
+        }
+
+        Value result = values[values.length - 1];
+        for (int i = values.length - 2; i >= 0; i--)
+            result = ValueOperations.add(values[i], result);
+
+        return result;
+    }
+}
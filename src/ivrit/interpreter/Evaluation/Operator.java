@@ -0,0 +1,93 @@
+package ivrit.interpreter.Evaluation;
+
+import ivrit.interpreter.Variables.Value;
+
+/**
+ * The binary operators that can be used in Ivrit expressions.
+ * Operators with a higher precedence are computed first (so brackets are only needed to change the order).
+ */
+public enum Operator {
+    OR(1, "או"),
+    AND(2, "וגם"),
+    EQUALS(3, "שווה"),
+    NOT_EQUALS(3, "לא-שווה"),
+    GREATER_THAN(4, ">"),
+    LESS_THAN(4, "<"),
+    ADD(5, "+"),
+    SUBTRACT(5, "-"),
+    MULTIPLY(6, "*"),
+    DIVIDE(6, "/"),
+    MODULO(6, "%"),
+    ITEM_AT(7, "במקום");
+
+    // The highest precedence of an operator:
+    public static final int MAX_PRECEDENCE = 7;
+
+    private final int precedence;
+    private final String literal;
+
+    Operator(int precedence, String literal) {
+        this.precedence = precedence;
+        this.literal = literal;
+    }
+
+    public int getPrecedence() {
+        return precedence;
+    }
+
+    public String getLiteral() {
+        return literal;
+    }
+
+    /**
+     * @return true IFF this is an arithmetic operator, which is computed from right to left.
+     */
+    public boolean isArithmetic() {
+        return this.precedence == ADD.precedence || this.precedence == MULTIPLY.precedence;
+    }
+
+    /**
+     * @param left - The value written on the left of the operator.
+     * @param right - The value written on the right of the operator.
+     * @return the result of this operator on the given values.
+     */
+    public Value apply(Value left, Value right) {
+        switch (this) {
+            case OR:
+                return ValueOperations.or(left, right);
+            case AND:
+                return ValueOperations.and(left, right);
+            case EQUALS:
+                return ValueOperations.equal(left, right);
+            case NOT_EQUALS:
+                return ValueOperations.notEqual(left, right);
+            case GREATER_THAN:
+                return ValueOperations.greaterThan(left, right);
+            case LESS_THAN:
+                return ValueOperations.lessThan(left, right);
+            case ADD:
+                return ValueOperations.add(left, right);
+            case SUBTRACT:
+                return ValueOperations.subtract(left, right);
+            case MULTIPLY:
+                return ValueOperations.multiply(left, right);
+            case DIVIDE:
+                return ValueOperations.divide(left, right);
+            case MODULO:
+                return ValueOperations.modulo(left, right);
+            default:
+                return ValueOperations.itemAt(left, right);
+        }
+    }
+
+    /**
+     * @return the operator the given word represents, or null if it isn't an operator.
+     */
+    public static Operator fromString(String word) {
+        for (Operator operator : values())
+            if (operator.literal.equals(word))
+                return operator;
+
+        return null;
+    }
+}
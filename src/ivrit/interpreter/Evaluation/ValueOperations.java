@@ -0,0 +1,224 @@
+package ivrit.interpreter.Evaluation;
+
+import java.util.List;
+
+import ivrit.interpreter.Variables.Value;
+
+/**
+ * The operations Ivrit supports on values.
+ * Since Ivrit is read from right to left, the arithmetic operations treat the right value as the first operand:
+ * (4 - 8) is 8 - 4, and the type of the result is the type of the right value.
+ */
+public final class ValueOperations {
+    /**
+     * This class only holds static methods.
+     */
+    private ValueOperations() {
+    }
+
+    /**
+     * @return the sum of the values, or their concatenation (left then right) if either of them is a string.
+     */
+    public static Value add(Value left, Value right) {
+        if (left.getType() == Value.Type.STRING || right.getType() == Value.Type.STRING)
+            return Value.ofString(left.toConcatenationText() + right.toConcatenationText());
+
+        return arithmetic(Operator.ADD, left, right);
+    }
+
+    /**
+     * @return the right value minus the left value.
+     */
+    public static Value subtract(Value left, Value right) {
+        return arithmetic(Operator.SUBTRACT, left, right);
+    }
+
+    /**
+     * @return the right value times the left value.
+     */
+    public static Value multiply(Value left, Value right) {
+        return arithmetic(Operator.MULTIPLY, left, right);
+    }
+
+    /**
+     * @return the right value divided by the left value.
+     */
+    public static Value divide(Value left, Value right) {
+        return arithmetic(Operator.DIVIDE, left, right);
+    }
+
+    /**
+     * @return the right value modulo the left value.
+     */
+    public static Value modulo(Value left, Value right) {
+        return arithmetic(Operator.MODULO, left, right);
+    }
+
+    /**
+     * @return true IFF the left value is greater then the right value.
+     */
+    public static Value greaterThan(Value left, Value right) {
+        checkComparable(left, right);
+        if (left.getType() == Value.Type.INTEGER && right.getType() == Value.Type.INTEGER)
+            return Value.ofBoolean(left.getInteger() > right.getInteger());
+
+        return Value.ofBoolean(toFloat(left) > toFloat(right));
+    }
+
+    /**
+     * @return true IFF the left value is less then the right value.
+     */
+    public static Value lessThan(Value left, Value right) {
+        checkComparable(left, right);
+        if (left.getType() == Value.Type.INTEGER && right.getType() == Value.Type.INTEGER)
+            return Value.ofBoolean(left.getInteger() < right.getInteger());
+
+        return Value.ofBoolean(toFloat(left) < toFloat(right));
+    }
+
+    /**
+     * @return true IFF both values are of the same type and have the same value.
+     */
+    public static Value equal(Value left, Value right) {
+        return Value.ofBoolean(left.equals(right));
+    }
+
+    /**
+     * @return true IFF the values are not of the same type or have different values.
+     */
+    public static Value notEqual(Value left, Value right) {
+        return Value.ofBoolean(!left.equals(right));
+    }
+
+    /**
+     * @return false IFF one of the values is false.
+     */
+    public static Value and(Value left, Value right) {
+        return Value.ofBoolean(!left.isFalse() && !right.isFalse());
+    }
+
+    /**
+     * @return true IFF one of the values is true.
+     */
+    public static Value or(Value left, Value right) {
+        return Value.ofBoolean(left.isTrue() || right.isTrue());
+    }
+
+    /**
+     * @param list - The list value.
+     * @param index - The index of the item we want (the first item is at index 1).
+     * @return the item of the list at the given index.
+     * @throws ClassCastException when the list isn't a list, or the index isn't an integer.
+     * @throws IndexOutOfBoundsException when the index is outside of the list.
+     */
+    public static Value itemAt(Value list, Value index) {
+        if (list.getType() != Value.Type.LIST)
+            throw new ClassCastException("שגיאה: הערך " + list.toText() + " אינו רשימה.");
+
+        if (index.getType() != Value.Type.INTEGER)
+            throw new ClassCastException("שגיאה: הערך " + index.toText() + " אינו מיקום חוקי ברשימה.");
+
+        List<Value> items = list.getList();
+        int position = index.getInteger();
+        if (position < 1)
+            throw new IndexOutOfBoundsException("שגיאה: המיקום " + position + " הוא קטן מידי עבור רשימה (צריך לפחות 1).");
+
+        if (position > items.size())
+            throw new IndexOutOfBoundsException("שגיאה: המיקום " + position + " הוא גדול מידי עבור רשימה בגודל " + items.size() + ".");
+
+        return items.get(position - 1);
+    }
+
+    /**
+     * Computes the result of an arithmetic operation, where the right value is the first operand.
+     * @throws ClassCastException when one of the values isn't numeric.
+     */
+    private static Value arithmetic(Operator operator, Value left, Value right) {
+        switch (right.getType()) {
+            case INTEGER: {
+                int first = right.getInteger();
+                int second;
+                if (left.getType() == Value.Type.INTEGER)
+                    second = left.getInteger();
+                else if (left.getType() == Value.Type.FLOAT)
+                    second = (int) left.getFloat();
+                else
+                    throw new ClassCastException(arithmeticErrorMessage(operator, "שלם", left));
+
+                switch (operator) {
+                    case ADD:
+                        return Value.ofInteger(first + second);
+                    case SUBTRACT:
+                        return Value.ofInteger(first - second);
+                    case MULTIPLY:
+                        return Value.ofInteger(first * second);
+                    case DIVIDE:
+                        return Value.ofInteger(first / second);
+                    default:
+                        return Value.ofInteger(first % second);
+                }
+            }
+            case FLOAT: {
+                float first = right.getFloat();
+                float second;
+                if (left.getType() == Value.Type.INTEGER)
+                    second = left.getInteger();
+                else if (left.getType() == Value.Type.FLOAT)
+                    second = left.getFloat();
+                else
+                    throw new ClassCastException(arithmeticErrorMessage(operator, "עשרוני", left));
+
+                switch (operator) {
+                    case ADD:
+                        return Value.ofFloat(first + second);
+                    case SUBTRACT:
+                        return Value.ofFloat(first - second);
+                    case MULTIPLY:
+                        return Value.ofFloat(first * second);
+                    case DIVIDE:
+                        return Value.ofFloat(first / second);
+                    default:
+                        return Value.ofFloat(first % second);
+                }
+            }
+            default:
+                throw new ClassCastException("הערך " + right.toText() + "אינו מתאים לאף משתנה מספרי.");
+        }
+    }
+
+    /**
+     * @return the error message for an arithmetic operation on a number of the given type with a value that isn't numeric.
+     */
+    private static String arithmeticErrorMessage(Operator operator, String typeName, Value value) {
+        switch (operator) {
+            case ADD:
+                return "שגיאה: לא ניתן לחבר למשתנה מסוג " + typeName + " את הערך " + value.toText();
+            case SUBTRACT:
+                return "שגיאה: לא ניתן לחסר ממשתנה מסוג " + typeName + " את הערך " + value.toText();
+            case MULTIPLY:
+                return "שגיאה: לא ניתן להכפיל משתנה מסוג " + typeName + " בערך " + value.toText();
+            case DIVIDE:
+                return "שגיאה: לא ניתן לחלק משתנה מסוג " + typeName + " בערך " + value.toText();
+            default:
+                return "שגיאה: לא ניתן לחשב שארית עבור משתנה מסוג " + typeName + " והערך " + value.toText();
+        }
+    }
+
+    /**
+     * @throws ClassCastException when one of the values can't be compared (isn't numeric).
+     */
+    private static void checkComparable(Value left, Value right) {
+        if (!left.isNumeric())
+            throw new ClassCastException("הערך " + left.toText() + "אינו מתאים לאף משתנה מספרי.");
+
+        if (!right.isNumeric())
+            throw new ClassCastException("שגיאה: לא ניתן להשוות משתנה מספרי לערך " + right.toText());
+    }
+
+    /**
+     * @return the given numeric value as a float.
+     */
+    private static float toFloat(Value value) {
+        return value.getType() == Value.Type.INTEGER ? value.getInteger() : value.getFloat();
+    }
+}
@@ -0,0 +1,39 @@
+package ivrit.interpreter.Evaluation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import ivrit.interpreter.Variables.Value;
+import ivrit.interpreter.Variables.VariablesController;
+
+/**
+ * An expression that is the name of a variable, and evaluates to its current value.
+ */
+public class VariableExpression implements Expression {
+    // The name of the variable (used in error messages):
+    private final String name;
+    // The slot of the variable:
+    private final int slot;
+
+    /**
+     * Constructor.
+     * @param name - The name of the variable.
+     * @param slot - The slot of the variable.
+     */
+    public VariableExpression(String name, int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+
+    /**
+     * @throws UncheckedIOException when there is no variable with the name of this expression.
+     */
+    @Override
+    public Value evaluate(VariablesController variablesController) {
+        Value value = variablesController.findVariableValue(this.slot);
+        if (value == null)
+            throw new UncheckedIOException("לא ניתן להבין את משמעות המילה " + this.name, new IOException());
+
+        return value;
+    }
+}
@@ -0,0 +1,143 @@
+package ivrit.interpreter;
+
+import ivrit.interpreter.IvritExceptions.ExecutionLimitException;
+
+/**
+ * Counts what a running program does, and stops it when it goes over its limits or when it is cancelled.
+ * It is called before every executed line, so counting is a single comparison: the clock and the cancellation flag
+ * are only checked every CHECK_INTERVAL lines.
+ * The time limit only counts the time the program actually runs: the clock is paused while the program waits for an input,
+ * and while it is suspended (waiting for its turn or for an input).
+ */
+public class ExecutionGuard {
+    // How many lines are executed between two checks of the clock and the cancellation flag:
+    private static final long CHECK_INTERVAL = 1024;
+    // The message of the error that stops a cancelled program:
+    public static final String CANCELLED_MESSAGE = "שגיאה: הריצה של התכנית בוטלה.";
+
+    // The limits of the program:
+    private final ExecutionLimits limits;
+    // How many nanoseconds the program may run (Long.MAX_VALUE if there is no time limit):
+    private final long maxNanos;
+    // How many nanoseconds the program ran until the clock was last paused:
+    private long usedNanos;
+    // When the clock was last started (in System.nanoTime), or -1 if the clock is paused:
+    private long runningSince;
+    // How many lines were executed so far:
+    private long executedInstructions;
+    // How many lines will have been executed when we check the limits again:
+    private long nextCheck;
+    // How many characters were printed so far:
+    private long outputCharacters;
+    // true IFF the program was cancelled (from another thread):
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor. The clock starts now.
+     * @param limits - The limits of the program.
+     */
+    public ExecutionGuard(ExecutionLimits limits) {
+        this.limits = limits;
+        this.maxNanos = limits.getMaxMillis() > 0 ? limits.getMaxMillis() * 1_000_000L : Long.MAX_VALUE;
+        this.usedNanos = 0;
+        this.runningSince = System.nanoTime();
+        this.executedInstructions = 0;
+        this.outputCharacters = 0;
+        this.cancelled = false;
+        scheduleNextCheck();
+    }
+
+    /**
+     * Counts a line that is about to be executed.
+     * @throws ExecutionLimitException when the program went over one of its limits, or was cancelled.
+     */
+    public void onInstruction() {
+        if (++this.executedInstructions >= this.nextCheck)
+            check();
+    }
+
+    /**
+     * Counts printed output.
+     * @param message - The message that is about to be printed.
+     * @throws ExecutionLimitException when the program printed more than it may.
+     */
+    public void onOutput(CharSequence message) {
+        onOutput(message.length());
+    }
+
+    /**
+     * Counts printed output.
+     * @param characters - How many characters are about to be printed.
+     * @throws ExecutionLimitException when the program printed more than it may.
+     */
+    public void onOutput(int characters) {
+        this.outputCharacters += characters;
+        if (this.limits.getMaxOutputCharacters() > 0 && this.outputCharacters > this.limits.getMaxOutputCharacters())
+            throw new ExecutionLimitException("שגיאה: התכנית הופסקה כי היא הדפיסה יותר מ-" + this.limits.getMaxOutputCharacters() + " תווים.");
+    }
+
+    /**
+     * Stops the clock, because the program stops running for a while (it waits for an input, or it is suspended).
+     */
+    public void pauseClock() {
+        if (this.runningSince != -1) {
+            this.usedNanos += System.nanoTime() - this.runningSince;
+            this.runningSince = -1;
+        }
+    }
+
+    /**
+     * Starts the clock again, because the program runs again.
+     */
+    public void resumeClock() {
+        if (this.runningSince == -1)
+            this.runningSince = System.nanoTime();
+    }
+
+    /**
+     * Asks the program to stop (it stops at the next check of the limits). Can be called from any thread.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * @return how many lines were executed so far.
+     */
+    public long getExecutedInstructions() {
+        return this.executedInstructions;
+    }
+
+    /**
+     * Checks all the limits.
+     * @throws ExecutionLimitException when the program went over one of its limits, or was cancelled.
+     */
+    private void check() {
+        if (this.cancelled)
+            throw new ExecutionLimitException(CANCELLED_MESSAGE);
+
+        if (this.limits.getMaxInstructions() > 0 && this.executedInstructions > this.limits.getMaxInstructions())
+            throw new ExecutionLimitException("שגיאה: התכנית הופסקה כי היא הריצה יותר מ-" + this.limits.getMaxInstructions() + " שורות.");
+
+        if (this.maxNanos != Long.MAX_VALUE && getRunningNanos() > this.maxNanos)
+            throw new ExecutionLimitException("שגיאה: התכנית הופסקה כי היא רצה יותר מ-" + this.limits.getMaxMillis() + " מילישניות.");
+
+        scheduleNextCheck();
+    }
+
+    /**
+     * @return how many nanoseconds the program ran so far (without the time the clock was paused).
+     */
+    private long getRunningNanos() {
+        return this.runningSince == -1 ? this.usedNanos : this.usedNanos + System.nanoTime() - this.runningSince;
+    }
+
+    /**
+     * Decides after which line the limits are checked again.
+     */
+    private void scheduleNextCheck() {
+        this.nextCheck = this.executedInstructions + CHECK_INTERVAL;
+        if (this.limits.getMaxInstructions() > 0)
+            this.nextCheck = Math.min(this.nextCheck, this.limits.getMaxInstructions() + 1);
+    }
+}
@@ -0,0 +1,40 @@
+package ivrit.interpreter;
+
+/**
+ * The limits of a single run of an Ivrit program (a limit of 0 or less means there is no such limit).
+ */
+public class ExecutionLimits {
+    // Limits that never stop a program:
+    public static final ExecutionLimits NONE = new ExecutionLimits(0, 0, 0);
+
+    // The maximal number of lines the program may execute:
+    private final long maxInstructions;
+    // The maximal number of milliseconds the program may run:
+    private final long maxMillis;
+    // The maximal number of characters the program may print:
+    private final long maxOutputCharacters;
+
+    /**
+     * Constructor.
+     * @param maxInstructions - The maximal number of lines the program may execute.
+     * @param maxMillis - The maximal number of milliseconds the program may run.
+     * @param maxOutputCharacters - The maximal number of characters the program may print.
+     */
+    public ExecutionLimits(long maxInstructions, long maxMillis, long maxOutputCharacters) {
+        this.maxInstructions = maxInstructions;
+        this.maxMillis = maxMillis;
+        this.maxOutputCharacters = maxOutputCharacters;
+    }
+
+    public long getMaxInstructions() {
+        return maxInstructions;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getMaxOutputCharacters() {
+        return maxOutputCharacters;
+    }
+}
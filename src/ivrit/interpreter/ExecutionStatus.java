@@ -0,0 +1,13 @@
+package ivrit.interpreter;
+
+/**
+ * Where a program stands after the interpreter returned control to its caller.
+ */
+public enum ExecutionStatus {
+    // The program used up its time slice, and continues when it gets the next one:
+    RUNNING,
+    // The program waits for an input of the user (nothing runs until it is resumed):
+    WAITING_FOR_INPUT,
+    // The program ended:
+    FINISHED
+}
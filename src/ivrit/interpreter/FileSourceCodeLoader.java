@@ -7,7 +7,7 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -31,7 +31,7 @@ public class FileSourceCodeLoader implements SourceCodeLoader {
             throw new IllegalArgumentException("הקובץ לא נמצא!");
 
         // Add all code lines (no empty lines or comments) of the file to a list:
-        List<String> lines = new LinkedList<>();
+        List<String> lines = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
             String line;
             while ((line = reader.readLine()) != null) {
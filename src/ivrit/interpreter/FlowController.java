@@ -1,11 +1,13 @@
 package ivrit.interpreter;
 
 import java.util.List;
-import java.util.Map;
 
+import ivrit.interpreter.IvritExceptions.ExecutionLimitException;
 import ivrit.interpreter.IvritExceptions.GeneralFileRuntimeException;
-import ivrit.interpreter.Variables.ArgumentData;
+import ivrit.interpreter.IvritExceptions.RecordedErrorException;
+import ivrit.interpreter.UserIO.GuardedIO;
 import ivrit.interpreter.UserIO.IvritIO;
+import ivrit.interpreter.UserIO.RecordingIO;
 
 /**
  * Handles controlling the flow of the Interpretor.
@@ -15,6 +17,24 @@ public class FlowController {
     SourceCodeLoader codeLoader;
     boolean keepRunning;
     boolean printMessages;
+    // The limits of every program that runs:
+    private ExecutionLimits executionLimits;
+    // The guard of the program that is running now (null if no program is running):
+    private volatile ExecutionGuard currentGuard;
+    // true IFF the programs of this controller were cancelled:
+    private volatile boolean cancelled;
+    // The cache of preprocessed programs (null if programs are always preprocessed):
+    private ProgramCache programCache;
+    // The cache of the outputs of programs that never ask for an input (null if programs always run):
+    private OutputCache outputCache;
+    // The measurements of the last program that finished running (null if no program finished yet):
+    private RunStatistics lastRunStatistics;
+    // How many lines a program runs before it is suspended (0 if programs run until they end, and wait for their inputs):
+    private long stepLines;
+    // The program that is suspended until it is resumed (null if there is no such program):
+    private RunningProgram suspendedProgram;
+    // Why the suspended program is suspended (RUNNING or WAITING_FOR_INPUT):
+    private ExecutionStatus suspendedStatus;
 
     /**
      * Constructor.
@@ -24,6 +44,7 @@ public class FlowController {
         this.codeLoader = codeLoader;
         this.keepRunning = true;
         printMessages = true;
+        this.executionLimits = ExecutionLimits.NONE;
     }
 
     /**
@@ -34,6 +55,43 @@ public class FlowController {
         this.codeLoader = codeLoader;
         this.keepRunning = keepRunning;
         this.printMessages = printMessages;
+        this.executionLimits = ExecutionLimits.NONE;
+    }
+
+    /**
+     * Sets the limits of every program that runs from now on.
+     * @param executionLimits - The limits of the programs.
+     */
+    public void setExecutionLimits(ExecutionLimits executionLimits) {
+        this.executionLimits = executionLimits;
+    }
+
+    /**
+     * Sets the cache of preprocessed programs, so running the same source code again skips the preprocessing.
+     * @param programCache - The cache of preprocessed programs (null to always preprocess).
+     */
+    public void setProgramCache(ProgramCache programCache) {
+        this.programCache = programCache;
+    }
+
+    /**
+     * Sets the cache of the outputs of programs that never ask for an input, so running the same source code again
+     * only replays its output.
+     * @param outputCache - The cache of the outputs (null to always run the programs).
+     */
+    public void setOutputCache(OutputCache outputCache) {
+        this.outputCache = outputCache;
+    }
+
+    /**
+     * Stops the program that is running now, or the program that is about to run
+     * (it stops with an error at the next check of its limits). Can be called from any thread.
+     */
+    public void cancel() {
+        this.cancelled = true;
+        ExecutionGuard guard = this.currentGuard;
+        if (guard != null)
+            guard.cancel();
     }
 
     /**
@@ -44,6 +102,49 @@ public class FlowController {
         startIvritInterpreter(true);
     }
 
+    /**
+     * Starts the interpretation process like startIvritInterpreter, but when the program asks for an input that the IO
+     * doesn't have yet (see IvritIO.pollUserInput), the program is suspended and this returns, so no thread waits for the input.
+     * Call resumeIvritInterpreter when the input arrives. Only for controllers that run a single program (keepRunning is false).
+     * @return WAITING_FOR_INPUT if the program is suspended until it gets an input, or FINISHED if it ended.
+     */
+    public ExecutionStatus beginIvritInterpreter() {
+        return beginIvritInterpreter(Long.MAX_VALUE);
+    }
+
+    /**
+     * Starts the interpretation process like beginIvritInterpreter, but the program is also suspended after every
+     * stepLines lines it runs, so many programs can take turns on a few threads (see Interpreter.step).
+     * @param stepLines - How many lines the program runs in every call (before it is suspended).
+     * @return RUNNING if the program is suspended until its next turn, WAITING_FOR_INPUT if it is suspended until it gets
+     * an input, or FINISHED if it ended.
+     */
+    public ExecutionStatus beginIvritInterpreter(long stepLines) {
+        this.stepLines = stepLines;
+        startIvritInterpreter(true);
+        return this.suspendedProgram == null ? ExecutionStatus.FINISHED : this.suspendedStatus;
+    }
+
+    /**
+     * Continues the suspended program from where it stopped (if it waits for an input, only once the input arrived).
+     * Can be called from any thread (but not from two threads at the same time).
+     * @return RUNNING if the program is suspended until its next turn, WAITING_FOR_INPUT if it is suspended until it gets
+     * an input, or FINISHED if it ended.
+     */
+    public ExecutionStatus resumeIvritInterpreter() {
+        RunningProgram running = this.suspendedProgram;
+        if (running == null)
+            return ExecutionStatus.FINISHED;
+
+        try {
+            continueProgram(running);
+        } catch (Exception exception) {
+            io.print(exception.getMessage());
+        }
+
+        return this.suspendedProgram == null ? ExecutionStatus.FINISHED : this.suspendedStatus;
+    }
+
     /**
      * Contains the logic for starting the interpretation process.
      * @param isFirstRun - Used for displaying a more different message after the first ivri program finished running.
@@ -58,7 +159,8 @@ public class FlowController {
                 return;
 
         } catch (Exception exception) {
-            //If we get an unhandled exception, print and try again:
+            //If we get an unhandled exception, print and try again (after the output that was printed before it):
+            io.flush();
             exception.printStackTrace();
             if (!keepRunning) 
                 return;
@@ -73,16 +175,9 @@ public class FlowController {
         }
 
         try {
-            //The preprocessing stage:
-            Preprocessor preprocessor = new Preprocessor(sourceFile, this.io);
-            Map<String, List<ArgumentData>> functionDefinitions = preprocessor.startPreprocessing();
-
-            //The interpretation stage:
-            Interpreter interpreter = new Interpreter(sourceFile, preprocessor.generateJumper(), functionDefinitions, this.io);
-            interpreter.initializeGlobalVariables();
-            interpreter.start();
+            runProgram(sourceFile);
 
-            if (keepRunning)
+            if (keepRunning && this.suspendedProgram == null)
                 startIvritInterpreter(false);
 
         } catch (Exception exception) {
@@ -99,6 +194,149 @@ public class FlowController {
         }
     }
 
+    /**
+     * @return the measurements of the last program that finished running (null if no program finished yet).
+     */
+    public RunStatistics getLastRunStatistics() {
+        return this.lastRunStatistics;
+    }
+
+    /**
+     * Runs a program, or replays its output if the same program already ran and never asked for an input.
+     * The output of a program that never asks for an input is recorded (together with the error it stopped with, if any),
+     * unless it was stopped because it went over its limits.
+     * @param sourceFile - The source file of the program.
+     */
+    private void runProgram(SourceFile sourceFile) {
+        String key = this.outputCache == null ? null : sourceFile.getContentHash();
+        if (key != null && !this.cancelled) {
+            RecordedOutput recordedOutput = this.outputCache.get(key);
+            long maxInstructions = this.executionLimits.getMaxInstructions();
+            if (recordedOutput != null && (maxInstructions == 0 || recordedOutput.getExecutedInstructions() <= maxInstructions)) {
+                replay(recordedOutput);
+                return;
+            }
+        }
+
+        RecordingIO recorder = key == null ? null : new RecordingIO(this.io);
+        IvritIO io = recorder == null ? this.io : recorder;
+
+        //The preprocessing stage:
+        long preprocessingStart = System.nanoTime();
+        PreprocessedProgram program = preprocess(sourceFile, io);
+        int interpretationStart = recorder == null ? 0 : recorder.getMessages().size();
+        // The output of a program that reads inputs is never replayed, so it isn't kept:
+        if (recorder != null && program.readsInput())
+            recorder.stopRecording();
+
+        //The interpretation stage:
+        Interpreter interpreter = new Interpreter(program, io);
+        interpreter.initializeGlobalVariables();
+        RunningProgram running = new RunningProgram(key, program, interpreter, recorder, interpretationStart, preprocessingStart, this.executionLimits);
+        interpreter.setExecutionGuard(running.guard);
+        continueProgram(running);
+    }
+
+    /**
+     * Runs the interpretation of a program until it ends, or (when programs are suspended) until it is suspended.
+     * @param running - The program to run.
+     */
+    private void continueProgram(RunningProgram running) {
+        Interpreter interpreter = running.interpreter;
+        this.currentGuard = running.guard;
+        if (this.cancelled)
+            this.currentGuard.cancel();
+
+        // Only the time the program runs counts, not the time it was suspended:
+        running.guard.resumeClock();
+        ExecutionStatus status;
+        try {
+            if (this.stepLines == 0) {
+                interpreter.start();
+                status = ExecutionStatus.FINISHED;
+            } else
+                status = interpreter.step(this.stepLines);
+        } catch (ExecutionLimitException exception) {
+            this.suspendedProgram = null;
+            throw exception; // The program may finish with other limits, so its output isn't recorded.
+        } catch (RuntimeException exception) {
+            this.suspendedProgram = null;
+            if (exception.getMessage() != null)
+                record(running, exception.getMessage());
+            throw exception;
+        } finally {
+            running.guard.pauseClock();
+            this.currentGuard = null;
+        }
+
+        if (status != ExecutionStatus.FINISHED) {
+            this.suspendedProgram = running;
+            this.suspendedStatus = status;
+            return;
+        }
+
+        this.suspendedProgram = null;
+        this.lastRunStatistics = new RunStatistics(running.interpretationStartTime - running.preprocessingStartTime,
+                System.nanoTime() - running.interpretationStartTime, interpreter.getExecutedInstructions());
+        record(running, null);
+    }
+
+    /**
+     * Caches the recorded output of a program, if its output is recorded and it never asks for an input.
+     * @param running - The program that ended.
+     * @param errorMessage - The message of the error the program stopped with (null if it ended without an error).
+     */
+    private void record(RunningProgram running, String errorMessage) {
+        if (running.recorder == null || running.program.readsInput() || running.recorder.isInputRequested())
+            return;
+
+        this.outputCache.put(running.key, new RecordedOutput(running.recorder.getMessages(), running.interpretationStart,
+                errorMessage, running.interpreter.getExecutedInstructions()));
+    }
+
+    /**
+     * Prints the recorded output of a program instead of running it. The output counts towards the output limit
+     * just like the output of a real run, and the error the program stopped with is thrown again.
+     * @param recordedOutput - The recorded output of the program.
+     * @throws RecordedErrorException when the program stopped with an error when it actually ran.
+     */
+    private void replay(RecordedOutput recordedOutput) {
+        long start = System.nanoTime();
+        IvritIO guardedIO = new GuardedIO(this.io, new ExecutionGuard(this.executionLimits));
+        List<String> messages = recordedOutput.getMessages();
+        for (int i = 0; i < messages.size(); i++)
+            (i < recordedOutput.getInterpretationStart() ? this.io : guardedIO).print(messages.get(i));
+
+        if (recordedOutput.getErrorMessage() != null)
+            throw new RecordedErrorException(recordedOutput.getErrorMessage());
+
+        this.lastRunStatistics = new RunStatistics(0, System.nanoTime() - start, recordedOutput.getExecutedInstructions());
+    }
+
+    /**
+     * Preprocesses a source file, or takes it from the cache if the same source code was already preprocessed.
+     * @param sourceFile - The source file to preprocess.
+     * @param io - The object that prints the messages of the preprocessing.
+     * @return the preprocessed program.
+     */
+    private PreprocessedProgram preprocess(SourceFile sourceFile, IvritIO io) {
+        if (this.programCache == null)
+            return new Preprocessor(sourceFile, io).preprocess();
+
+        String key = sourceFile.getContentHash();
+        PreprocessedProgram program = this.programCache.get(key);
+        if (program != null) {
+            // The output should be the same as if we preprocessed the file:
+            io.print(Preprocessor.PREPROCESSING_STARTED_MESSAGE);
+            io.print(Preprocessor.PREPROCESSING_FINISHED_MESSAGE);
+            return program;
+        }
+
+        program = new Preprocessor(sourceFile, io).preprocess();
+        this.programCache.put(key, program);
+        return program;
+    }
+
     /**
      * Handles loading the file from the user input.
      */
@@ -127,4 +365,37 @@ public class FlowController {
             else return null;
         }
     }
+
+    /**
+     * A program whose interpretation started, with everything needed to finish it (also after it was suspended).
+     */
+    private static class RunningProgram {
+        // The key of the program in the output cache (null if outputs aren't cached):
+        private final String key;
+        // The preprocessed program:
+        private final PreprocessedProgram program;
+        // The interpreter that runs the program (it holds the position, scopes and variables of the program):
+        private final Interpreter interpreter;
+        // Records the output of the program (null if outputs aren't cached):
+        private final RecordingIO recorder;
+        // The index of the first recorded message that was printed after the interpretation started:
+        private final int interpretationStart;
+        // Counts the executed lines and the output of the program, and stops it when it goes over its limits:
+        private final ExecutionGuard guard;
+        // When the preprocessing and the interpretation started (in System.nanoTime):
+        private final long preprocessingStartTime;
+        private final long interpretationStartTime;
+
+        RunningProgram(String key, PreprocessedProgram program, Interpreter interpreter, RecordingIO recorder,
+                       int interpretationStart, long preprocessingStartTime, ExecutionLimits limits) {
+            this.key = key;
+            this.program = program;
+            this.interpreter = interpreter;
+            this.recorder = recorder;
+            this.interpretationStart = interpretationStart;
+            this.preprocessingStartTime = preprocessingStartTime;
+            this.interpretationStartTime = System.nanoTime();
+            this.guard = new ExecutionGuard(limits);
+        }
+    }
 }
@@ -2,15 +2,16 @@ package ivrit.interpreter;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.List;
-import java.util.Map;
-
+import ivrit.interpreter.Compilation.Instruction;
+import ivrit.interpreter.Compilation.Opcodes;
 import ivrit.interpreter.Evaluation.EvaluationController;
+import ivrit.interpreter.Evaluation.ValueOperations;
 
 import ivrit.interpreter.IvritStreams.JumpingSourceFileReader;
+import ivrit.interpreter.UserIO.GuardedIO;
 import ivrit.interpreter.UserIO.IvritIO;
-import ivrit.interpreter.Variables.ArgumentData;
-import ivrit.interpreter.Variables.StringVariable;
+import ivrit.interpreter.Variables.SymbolTable;
+import ivrit.interpreter.Variables.Value;
 import ivrit.interpreter.Variables.VariablesController;
 
 /**
@@ -24,6 +25,8 @@ public class Interpreter {
 
     // The file we want to interpret after preprocessing it.
     private SourceFile preprocessedFile;
+    // The compiled instructions of the preprocessed file (instruction i is the compiled line i):
+    private Instruction[] program;
     // The object that handles all the variables of the program:
     private VariablesController variableController;
     // Controls the jump operation:
@@ -32,17 +35,43 @@ public class Interpreter {
     private EvaluationController evaluator;
     // The object that handles inputs and outputs:
     private IvritIO io;
+    // Counts the executed lines and the output of the program, and stops it when it goes over its limits:
+    private ExecutionGuard guard;
+    // Reads the lines of the program in the order they are executed (null until the program starts):
+    private JumpingSourceFileReader reader;
+    // false IFF the program reached 'צא':
+    private boolean continueProcessing;
+    // The slot of the variable that waits for an input of the user (-1 if the program doesn't wait for an input):
+    private int pendingInputSlot;
+    // true IFF the program ended (after it was run with step):
+    private boolean finished;
 
     /**
      * Constructor.
-     * @param preprocessedFile - The file we want to interpret after preprocessing it.
+     * @param program - The program we want to interpret after preprocessing it (its instructions are shared with its other runs).
+     * @param io - The object that handles inputs and outputs.
      */
-    public Interpreter(SourceFile preprocessedFile, Jumper jumper, Map<String,List<ArgumentData>> functionDefinitions, IvritIO io) {
-        this.preprocessedFile = preprocessedFile;
-        this.variableController = new VariablesController(functionDefinitions);
-        this.jumper = jumper;
+    public Interpreter(PreprocessedProgram program, IvritIO io) {
+        this.preprocessedFile = program.getPreprocessedFile();
+        this.program = program.getInstructions();
+        // Names that are only seen while running (like in an input) get their slots in this run only:
+        this.variableController = new VariablesController(program.getFunctionDefinitions(), new SymbolTable(program.getSymbols()));
+        this.jumper = program.generateJumper();
         this.evaluator = new EvaluationController(this.variableController);
         this.io = io;
+        this.guard = new ExecutionGuard(ExecutionLimits.NONE);
+        this.continueProcessing = true;
+        this.pendingInputSlot = -1;
+        this.finished = false;
+    }
+
+    /**
+     * Sets the guard that counts the executed lines and the output of the program, and stops it when it goes over its limits.
+     * @param guard - The guard of the program.
+     */
+    public void setExecutionGuard(ExecutionGuard guard) {
+        this.guard = guard;
+        this.io = new GuardedIO(this.io, guard);
     }
 
     /**
@@ -50,8 +79,9 @@ public class Interpreter {
      */
     public void initializeGlobalVariables() {
         //Initialize global variables for true and false:
-        this.variableController.createVariable("אמת", "טענה", "אמת", false, true);
-        this.variableController.createVariable("שקר", "טענה", "שקר", false, true);
+        SymbolTable symbols = this.variableController.getSymbols();
+        this.variableController.createVariable(symbols.slotOf("אמת"), "טענה", Value.TRUE, false, true);
+        this.variableController.createVariable(symbols.slotOf("שקר"), "טענה", Value.FALSE, false, true);
     }
 
     /**
@@ -60,29 +90,51 @@ public class Interpreter {
      */
     public void start() {
         io.print("מתחיל לפרש את הקוד.\n");
-        boolean continueProcessing = true;
+        finish(execute());
+    }
 
-        try {
-            JumpingSourceFileReader reader = new JumpingSourceFileReader(preprocessedFile);
-            this.jumper.setActiveReader(reader);
-
-            String currentLine;
-            // Read the input line by line, an interpret it each time:
-            while ((currentLine = reader.readLine()) != null && continueProcessing) {
-                //Handles jump flags:
-                if (currentLine.charAt(0) == JUMP_FLAG_CHAR) {
-                    //If the jump flag marks the end of a "then" if block part, check where to continue reading at:
-                    this.jumper.handleJumpFlagLinks(currentLine.substring(1));
-                    continue;
-                }
+    /**
+     * Runs at most maxLines lines of the program and returns, so many programs can take turns on a few threads.
+     * The first call starts the program, and every call continues from where the previous one stopped (the position,
+     * scopes and variables of the program stay in this object). When the program asks for an input the user didn't give yet
+     * (see IvritIO.pollUserInput), this returns instead of waiting, and the next call continues once the input arrived.
+     * The output of the program is the same as the output of start(), however it is split between the calls.
+     * @param maxLines - The maximal number of lines to run in this call.
+     * @return RUNNING if the program stopped after maxLines lines, WAITING_FOR_INPUT if it waits for an input, or FINISHED if it ended.
+     * @throws UncheckedIOException when an exception that cannot be traced happened during interpretation.
+     */
+    public ExecutionStatus step(long maxLines) {
+        if (this.finished)
+            return ExecutionStatus.FINISHED;
 
-                continueProcessing = processLine(currentLine);
-            }
-        } catch (IOException exception) {
-            //We cant really recover if we cant read from the source file...
-            throw new UncheckedIOException("שגיאה: המפרש נכשל במהלך הריצה. ודאו שהקוד אכן בפורמט הנכון.", exception);
+        if (this.reader == null) {
+            io.print("מתחיל לפרש את הקוד.\n");
+            startReading();
+        }
+
+        if (this.pendingInputSlot != -1) {
+            String input = this.io.pollUserInput();
+            if (input == null)
+                return ExecutionStatus.WAITING_FOR_INPUT;
+
+            storeInput(this.pendingInputSlot, input);
+            this.pendingInputSlot = -1;
         }
 
+        ExecutionStatus status = executeLines(true, maxLines);
+        if (status == ExecutionStatus.FINISHED) {
+            this.finished = true;
+            finish(this.continueProcessing);
+        }
+
+        return status;
+    }
+
+    /**
+     * Prints the messages of the end of the program, and the variables that were left.
+     * @param continueProcessing - false IFF the program ended because it reached 'צא'.
+     */
+    private void finish(boolean continueProcessing) {
         if (continueProcessing) {
             io.print("\nפירוש הקוד הסתיים לאחר שנקרא כל הקוד (לא עברנו דרך 'צא')");
         } else
@@ -93,68 +145,123 @@ public class Interpreter {
     }
 
     /**
-     * Figures out what action needs to be performed, and calls it.
-     * @return true IFF the program should continue after the given line is processed.
-     * @throws UnsupportedActionException when the action of the line is not supported in Ivrit.
+     * Executes the program, from its first instruction until it ends.
+     * @return false IFF the program ended because it reached 'צא'.
+     * @throws UncheckedIOException when an exception that cannot be traced happened during interpretation.
      */
-    private boolean processLine(String originalLine) {
-        String line = originalLine;
-        //The first word of each line tells us what the line does (print, if, create a variable, etc...)
-        int endAt = line.indexOf(' ');
-        if (endAt == -1) //Handle the case where the line only has one word:
-            endAt = line.length();
-        String action = line.substring(0, endAt);
-        InterpreterCommands command = InterpreterCommands.fromString(action);
-        
-        if (command == null) { // action is not a command:
-            if (this.variableController.isVariable(action))
-                processAssignmentAction(line.substring(endAt + 1), action); //It is a variable, than we are just assigning to it: 
-            else 
-                throw new UnsupportedOperationException("שגיאה: הפירוש נתקע במילה הלא מוכרת '" + action + "' בשורה '" + originalLine + "'");
+    private boolean execute() {
+        startReading();
+        executeLines(false, Long.MAX_VALUE);
+        return this.continueProcessing;
+    }
 
-            return true;
+    /**
+     * Points the reader of the program to its first instruction.
+     * @throws UncheckedIOException when the preprocessed file can't be read.
+     */
+    private void startReading() {
+        try {
+            this.reader = new JumpingSourceFileReader(preprocessedFile);
+            this.jumper.setActiveReader(this.reader);
+        } catch (IOException exception) {
+            //We cant really recover if we cant read from the source file...
+            throw new UncheckedIOException("שגיאה: המפרש נכשל במהלך הריצה. ודאו שהקוד אכן בפורמט הנכון.", exception);
         }
+    }
 
-        switch (command) {
-            case PRINT:
-                processPrintAction(line.substring(endAt + 1));
+    /**
+     * Executes instructions until the program ends (or until it waits for an input, or maxLines lines were executed).
+     * @param suspendOnInput - true IFF we should stop when the program asks for an input the user didn't give yet,
+     *                         instead of waiting for it.
+     * @param maxLines - The maximal number of lines to execute.
+     * @return RUNNING if we stopped after maxLines lines, WAITING_FOR_INPUT if the program waits for an input, or FINISHED if it ended.
+     */
+    private ExecutionStatus executeLines(boolean suspendOnInput, long maxLines) {
+        // Read the program instruction by instruction, an interpret each one:
+        for (long executedLines = 0; this.continueProcessing; executedLines++) {
+            if (executedLines == maxLines)
+                return ExecutionStatus.RUNNING;
+
+            int currentLine = this.reader.nextLineNumber();
+            if (currentLine == -1)
                 break;
-            case VARIABLE:
-                processVariableAction(line.substring(endAt + 1));
+
+            this.guard.onInstruction();
+            Instruction instruction = this.program[currentLine];
+            if (suspendOnInput && instruction.getOpcode() == Opcodes.INPUT) {
+                String input = this.io.pollUserInput();
+                if (input == null) {
+                    this.pendingInputSlot = instruction.getVariableSlot();
+                    return ExecutionStatus.WAITING_FOR_INPUT;
+                }
+
+                storeInput(instruction.getVariableSlot(), input);
+            } else
+                this.continueProcessing = processInstruction(instruction);
+        }
+
+        return ExecutionStatus.FINISHED;
+    }
+
+    /**
+     * @return how many instructions were executed so far.
+     */
+    public long getExecutedInstructions() {
+        return this.guard.getExecutedInstructions();
+    }
+
+    /**
+     * Executes a single instruction.
+     * @return true IFF the program should continue after the given instruction is processed.
+     * @throws UnsupportedActionException when the action of the line is not supported in Ivrit.
+     */
+    private boolean processInstruction(Instruction instruction) {
+        switch (instruction.getOpcode()) {
+            case Opcodes.LABEL:
+                //Jump flags only mark places we can jump to, so there is nothing to do:
+                break;
+            case Opcodes.PRINT:
+                processPrintAction(instruction);
                 break;
-            case CONSTANT:
-                processConstantAction(line.substring(endAt + 1));
+            case Opcodes.VARIABLE:
+                processVariableAction(instruction, false);
                 break;
-            case DELETE:
-                processDeleteAction(line.substring(endAt + 1).trim());
+            case Opcodes.CONSTANT:
+                processVariableAction(instruction, true);
                 break;
-            case IF:
-                processIfAction(line);
+            case Opcodes.DELETE:
+                processDeleteAction(instruction.getVariableSlot());
                 break;
-            case JUMP:
-                processJumpAction(line.substring(endAt + 1));
+            case Opcodes.IF:
+                processIfAction(instruction);
                 break;
-            case CALL:
-                processCallFunctionAction(line.substring(endAt + 1));
+            case Opcodes.JUMP:
+                this.jumper.activeReaderJumpTo(instruction.getTarget(0), instruction.getOperand(0));
                 break;
-            case RETURN:
-                if (endAt < line.length())
-                    processReturnAction(line.substring(endAt + 1));
-                else processReturnAction("");
+            case Opcodes.CALL:
+                processCallFunctionAction(instruction);
                 break;
-            case INPUT:
-                processInputAction(line.substring(endAt + 1));
+            case Opcodes.CALL_WITH_ARGUMENTS:
+                processCallFunctionWithArgumentsAction(instruction);
                 break;
-            case ADD:
-                processAddAction(line.substring(5).trim());
+            case Opcodes.RETURN:
+                processReturnAction();
                 break;
-            case REMOVE:
-                processRemoveAction(line.substring(4).trim());
+            case Opcodes.INPUT:
+                processInputAction(instruction.getVariableSlot());
                 break;
-            case EXIT:
+            case Opcodes.ADD:
+                this.variableController.addToListVariable(instruction.getVariableSlot(), instruction.getOperand(1), this.evaluator.evaluate(instruction.getExpression(2)));
+                break;
+            case Opcodes.REMOVE:
+                this.variableController.removeFromListVariable(instruction.getVariableSlot(), instruction.getOperand(1));
+                break;
+            case Opcodes.EXIT:
                 return false;
-            default:
-                throw new UnsupportedOperationException("שגיאה: הפירוש נתקע במילה הלא מוכרת '" + action + "' בשורה '" + originalLine + "'");
+            case Opcodes.INVALID:
+                throw instruction.getError();
+            default: // One of the assignment instructions:
+                processAssignmentAction(instruction);
         }
 
         return true;
@@ -162,308 +269,157 @@ public class Interpreter {
 
     /**
      * Processes the print action.
+     * @param instruction - The instruction that contains the expression to print.
      */
-    private void processPrintAction(String data) {
-        data = this.evaluator.evaluate(data);
-        io.print(data);
-    }
-
-    /**
-     * Processes the action of creating a new variable.
-     */
-    private void processVariableAction(String data) {
-        String[] infoTokens = splitVariableInfo(data);
-        boolean isList = (infoTokens[3].equals("true"));
-
-        if (!isList) {
-            // lists dont evaluate to anything...
-            infoTokens[2] = this.evaluator.evaluate(infoTokens[2]);
-        }
-
-        this.variableController.createVariable(infoTokens[0], infoTokens[1], infoTokens[2], isList, false);
+    private void processPrintAction(Instruction instruction) {
+        io.print(this.evaluator.evaluate(instruction.getExpression(0)));
     }
 
     /**
-     * Processes the action of creating a new constant.
+     * Processes the action of creating a new variable or constant.
+     * @param instruction - The instruction that contains the name, type, and value of the new variable.
+     * @param isConstant - true IFF we are creating a constant.
      */
-    private void processConstantAction(String data) {
-        String[] infoTokens = splitVariableInfo(data);
-        boolean isList = (infoTokens[3].equals("true"));
-
-        if (!isList) {
-            // lists dont evaluate to anything...
-            infoTokens[2] = this.evaluator.evaluate(infoTokens[2]);
-        }
+    private void processVariableAction(Instruction instruction, boolean isConstant) {
+        Value value = this.evaluator.evaluate(instruction.getExpression(2));
+        boolean isList = (instruction.getOperand(3).equals("true"));
 
-        this.variableController.createVariable(infoTokens[0], infoTokens[1], infoTokens[2], isList, true);
-    }
-
-    /**
-     * @return Splits the information about the variable to 3 tokens and returns them as an array:
-     * [0]: the name of the variable.
-     * [1]: the type of the variable.
-     * [2]: the value of the variable.
-     * [3]: true IFF the info belongs to a list variable.
-     */
-    private String[] splitVariableInfo(String variableInfo) {
-        String original = variableInfo;
-        try {
-            String[] infoTokens = new String[4];
-            int cutAt = variableInfo.indexOf(' ');
-
-            String firstWord = variableInfo.substring(0, cutAt).trim(); // either a type string or a list string.
-
-            if (firstWord.equals("רשימה")) {
-                variableInfo = variableInfo.substring(cutAt + 1).trim(); // ignore the word: רשימה
-                cutAt = variableInfo.indexOf(' '); // search where the type word finishes
-                infoTokens[1] = variableInfo.substring(0, cutAt).trim();
-                variableInfo = variableInfo.substring(cutAt + 1).trim(); // ignore the type word
-                cutAt = variableInfo.indexOf('=');
-                infoTokens[0] = variableInfo.substring(0, cutAt - 1).trim();
-                infoTokens[2] = variableInfo.substring(cutAt + 1).trim();
-                infoTokens[3] = "true";
-
-            } else { // regular variables (non lists)
-                infoTokens[1] = firstWord;
-                variableInfo = variableInfo.substring(cutAt + 1).trim();
-                cutAt = variableInfo.indexOf('=');
-                infoTokens[0] = variableInfo.substring(0, cutAt - 1).trim();
-                infoTokens[2] = variableInfo.substring(cutAt + 1).trim();
-                infoTokens[3] = "false";
-            }
-
-            return infoTokens;
-        } catch (Exception e) {
-            throw new UncheckedIOException("שגיאה: נמצאה שגיאה בפענוח השורה '" + original + "'. ודאו שהשורה מתאימה לפורמט: משתנה טיפוס שם = ערך.", new IOException());
-        }
+        this.variableController.createVariable(instruction.getVariableSlot(), instruction.getOperand(1), value, isList, isConstant);
     }
 
     /**
      * Processes the deletion of a variable.
-     * @param variableName - The name of the variable to delete.
+     * @param slot - The slot of the variable to delete.
      */
-    private void processDeleteAction(String variableName) {
-        this.variableController.deleteVariable(variableName);
+    private void processDeleteAction(int slot) {
+        this.variableController.deleteVariable(slot);
     }
 
     /**
      * Processes the if action.
-     * @param line -The line of the if statement.
-     * @throws IllegalArgumentException if any of the if-then-else-finally parts are missing.
+     * @param instruction -The instruction of the if statement.
      */
-    private void processIfAction(String line) {
-        int ifIndex = line.indexOf("אם");
-        if (ifIndex == -1)
-            throw new IllegalArgumentException("שגיאה: חסר 'אם' בשורה '" + line + "'.");
-
-        int thenIndex = line.indexOf("אז");
-        if (thenIndex == -1)
-            throw new IllegalArgumentException("שגיאה: חסר 'אז' בשורה '" + line + "'.");
-
-        String condition = line.substring(ifIndex + 2, thenIndex).trim();
-        condition = this.evaluator.evaluate(condition);
-
-        //Get the flags for the different parts:
-        int firstCommaIndex = line.indexOf(',');
-        if (firstCommaIndex == -1)
-            throw new IllegalArgumentException("שגיאה: חסר פסיק אחרי סוף תגית ה-'אז' בשורה '" + line + "'.");
-
-        int secondCommaIndex = line.lastIndexOf(',');
-        if (secondCommaIndex == -1)
-            throw new IllegalArgumentException("שגיאה: חסר פסיק אחרי סוף תגית ה-'אחרת' בשורה '" + line + "'.");
-
-        int elseIndex = line.indexOf("אחרת");
-        if (elseIndex == -1)
-            throw new IllegalArgumentException("שגיאה: חסר 'אחרת' בשורה '" + line + "'.");
-
-        int finallyIndex = line.indexOf("בסוף");
-        if (finallyIndex == -1)
-            throw new IllegalArgumentException("שגיאה: חסר 'אחרת' בשורה '" + line + "'.");
-        
-        if (firstCommaIndex == secondCommaIndex)
-            throw new IllegalArgumentException("שגיאה: חייבים להיות שני פסיקים בשורה '" + line + "'.");
-
-        String thenFlag = line.substring(thenIndex + 2, firstCommaIndex).trim();
-        String elseFlag = line.substring(elseIndex + 4, secondCommaIndex).trim();
-        String endFlag = line.substring(finallyIndex + 4).trim();
+    private void processIfAction(Instruction instruction) {
+        Value condition = this.evaluator.evaluate(instruction.getExpression(0));
 
-        //Delete the @ at the start of each flag:
-        thenFlag = thenFlag.substring(1);
-        elseFlag = elseFlag.substring(1);
-        endFlag = endFlag.substring(1); 
-
-        if (condition.equals("אמת")) {
-            //Remember where to continue after the "then" part, and execute it:
-            this.jumper.addJumpFlagLink(elseFlag, endFlag);
-
-        } else {
+        //If the condition is true we just continue to the "then" part (which ends with a jump over the "else" part).
+        if (!condition.isTrue()) {
             //Jump to the "else" part:
-            this.jumper.activeReaderJumpTo(elseFlag);
+            this.jumper.activeReaderJumpTo(instruction.getTarget(0), instruction.getOperand(1));
         }
     }
 
     /**
-     * Processes the jump action.
-     * @param jumpFlag - The jump flag we want to jump to.
+     * Processes calling a function without arguments.
+     * @param instruction - The instruction that contains which function was called.
      */
-    private void processJumpAction(String jumpFlag) {
-        this.jumper.activeReaderJumpTo(jumpFlag);
+    private void processCallFunctionAction(Instruction instruction) {
+        this.jumper.activeReaderStartFunction(instruction.getTarget(0), instruction.getOperand(0));
+        this.variableController.createScope();
     }
 
     /**
-     * Processes the function calls action.
-     * @param callLine - The line that contains which function was called and with what arguments.
+     * Processes calling a function with arguments.
+     * @param instruction - The instruction that contains which function was called and with what arguments.
      */
-    private void processCallFunctionAction(String callLine) {
-        String original = callLine;
-        int functionNameEndIndex = callLine.indexOf(' ');
-        if (functionNameEndIndex == -1) { // A call without arguments
-            this.jumper.activeReaderStartFunction(callLine);
-            this.variableController.createScope();
-        } else { // A call with arguments. We need to extract them first.
-            String functionName = callLine.substring(0, functionNameEndIndex).trim();
-            callLine = callLine.substring(functionNameEndIndex + 1).trim();
-            if (!callLine.startsWith("עם"))
-                throw new IllegalArgumentException("שגיאה: נמצאה קריאה לפונקציה עם ארגומנטים אך ללא המילה עם בשורה '" + original + "'.");
-            callLine = callLine.substring(3).trim();
-            String[] args = callLine.split(","); //TODO: but this splits strings that include , incorrectly...
-            for (int i = 0; i < args.length; i++)
-                args[i] = this.evaluator.evaluate(args[i].trim());
-
-            this.jumper.activeReaderStartFunction(functionName);
-            this.variableController.createScope(functionName, args);
-        }
+    private void processCallFunctionWithArgumentsAction(Instruction instruction) {
+        Value[] args = new Value[instruction.getOperandsCount() - 1];
+        for (int i = 0; i < args.length; i++)
+            args[i] = this.evaluator.evaluate(instruction.getExpression(i + 1));
+
+        String functionName = instruction.getOperand(0);
+        this.jumper.activeReaderStartFunction(instruction.getTarget(0), functionName);
+        this.variableController.createScope(functionName, args);
     }
 
     /**
      * Processes the return to caller action.
      */
-    private void processReturnAction(String returnValue) {
+    private void processReturnAction() {
         this.jumper.activeReaderReturnToCaller();
         this.variableController.popScope();
     }
 
     /**
      * Processes getting an input from the user and storing it in a variable.
-     * @param variableName - The variable to store the input in.
+     * @param slot - The slot of the variable to store the input in.
      */
-    private void processInputAction(String variableName) {
-        String input = this.io.getUserInput();
-        input = this.evaluator.evaluate(input);
-
-        this.variableController.updateVariable(variableName, input);
+    private void processInputAction(int slot) {
+        storeInput(slot, this.io.getUserInput());
     }
 
     /**
-     * Processes adding a value to a list.
-     * @param line - The line the describes what value to add, where to add it, and to which list to add it.
-     */ //TODO: make sure this works with lists of strings that contain spaces
-    private void processAddAction(String line) {
-        String target = line.substring(line.lastIndexOf(' ')+1).trim(); 
-        line = line.substring(0, line.lastIndexOf(' ')).trim();
-        
-        if (line.endsWith("לתחילת") || line.endsWith("בתחילת")) {
-            line = line.substring(0, line.lastIndexOf(' ')).trim();
-            this.variableController.addToListVariable(target, "1", line);
-
-        } else if (line.endsWith("לסוף") || line.endsWith("בסוף")) {
-            line = line.substring(0, line.lastIndexOf(' ')).trim();
-            this.variableController.addToListVariable(target, "end", line);
-
-        } else if (line.endsWith("של")) { // adding to the middle of a list
-            line = line.substring(0, line.lastIndexOf(' ')).trim();
-            String[] values = line.split("במקום");
-            this.variableController.addToListVariable(target, values[1].trim(), values[0].trim());
-
-        } else {
-            throw new UnsupportedOperationException("שגיאה: הפירוש נתקע בקטע הלא החוקי '" + line + "' בזמן הוספה לרשימה.");
-        }
-    }
-
-    private void processRemoveAction(String line) {
-        String target = line.substring(line.lastIndexOf(' ') + 1).trim(); 
-        line = line.substring(0, line.lastIndexOf(' ')).trim();
-
-        if (line.endsWith("מתחילת")) {
-            this.variableController.removeFromListVariable(target, "1");
-
-        } else if (line.endsWith("מסוף")) {
-            this.variableController.removeFromListVariable(target, "end");
-
-        } else if (line.endsWith("של")) { // removing from the middle of a list
-            line = line.substring(0, line.lastIndexOf(' ')).trim();
-            this.variableController.removeFromListVariable(target, line.substring(line.lastIndexOf(' ')).trim());
+     * Stores an input of the user in a variable.
+     * @param slot - The slot of the variable to store the input in.
+     * @param input - The input of the user.
+     */
+    private void storeInput(int slot, String input) {
+        Value value = this.evaluator.evaluate(input);
 
-        } else {
-            throw new UnsupportedOperationException(
-                    "שגיאה: הפירוש נתקע בקטע הלא החוקי '" + line + "' בזמן הסרה לרשימה.");
-        }
+        this.variableController.updateVariable(slot, value);
     }
 
     /**
      * Processes the assignment action.
-     * @param data - The data to assign.
-     * @param variableName - The name of the variable to assign to.
-     * @throws UnsupportedOperationException when the compound assignment attempted is not supported in Ivrit.
+     * @param instruction - The assignment instruction (the first operand is always the name of the variable to assign to).
+     * @throws UnsupportedOperationException when the first word of the line isn't a variable, or when the assignment is not supported in Ivrit.
      */
-    private void processAssignmentAction(String data, String variableName) {
-        if (this.variableController.isList(variableName) && data.startsWith("במקום")) {
-            // We are trying to assign inside a list:
-            data = data.substring(6); // ignore במקום
-            int charAt = data.indexOf('=');
-            if (charAt == -1)
-                throw new UnsupportedOperationException("שגיאה: נמצאה השמה של המשתנה '" + variableName + "' שבה לא היה הסימן שווה (=).");
-
-            int index = Integer.parseInt(data.substring(0, charAt).trim());
-            String newValue = this.evaluator.evaluate(data.substring(charAt+1).trim());
-            this.variableController.updateListVariable(variableName, index, newValue);
-            return;
-        }
-
-        // Assignment of a regular variable:
-        char assignmentType = data.charAt(0);
-        data = data.substring(1).trim();
-        String newValue;
-
-        switch (assignmentType) {
-            case '=':
+    private void processAssignmentAction(Instruction instruction) {
+        int slot = instruction.getVariableSlot();
+        if (!this.variableController.isVariable(slot))
+            throw new UnsupportedOperationException("שגיאה: הפירוש נתקע במילה הלא מוכרת '" + instruction.getOperand(0) + "' בשורה '" + instruction.getLine() + "'");
+
+        Value data;
+        Value newValue;
+
+        switch (instruction.getOpcode()) {
+            case Opcodes.ASSIGN_LIST_ITEM:
+                if (!this.variableController.isList(slot))
+                    throw new UnsupportedOperationException("שגיאה: התו ב אינו חוקי לפני התו '=' בפעולת השמה בקטע " + instruction.getLine());
+
+                // We are trying to assign inside a list:
+                Value index = this.evaluator.evaluate(instruction.getExpression(1));
+                if (index.getType() != Value.Type.INTEGER)
+                    throw new ClassCastException("שגיאה: הערך " + index.toText() + " אינו מיקום חוקי ברשימה.");
+
+                newValue = this.evaluator.evaluate(instruction.getExpression(2));
+                this.variableController.updateListVariable(slot, index.getInteger(), newValue);
+                return;
+            case Opcodes.ASSIGN:
                 // Normal assignment:
-                newValue = this.evaluator.evaluate(data);
+                newValue = this.evaluator.evaluate(instruction.getExpression(1));
                 break;
-            case '+':
+            case Opcodes.ASSIGN_ADD:
                 // Additive compound assignment:
-                data = this.evaluator.evaluate(data.substring(1).trim());
-                if (StringVariable.isStringValue(data) || StringVariable.isStringValue(variableName)) {
+                data = this.evaluator.evaluate(instruction.getExpression(1));
+                Value currentValue = this.variableController.getVariableValue(slot);
+                if (data.getType() == Value.Type.STRING || currentValue.getType() == Value.Type.STRING) {
                     // Adding strings:
-                    newValue = this.evaluator.evaluate(variableName + " + " + data);
+                    newValue = ValueOperations.add(currentValue, data);
                 } else {
                     // Adding numbers:
-                    newValue = this.evaluator.evaluate('(' + data + " + " + variableName + ')');
+                    newValue = ValueOperations.add(data, currentValue);
                 }
                 break;
-            case '-':
+            case Opcodes.ASSIGN_SUBTRACT:
                 // Subtractive compound assignment:
-                data = this.evaluator.evaluate(data.substring(1).trim());
-                newValue = this.evaluator.evaluate('(' + data + " - " + variableName + ')');
+                data = this.evaluator.evaluate(instruction.getExpression(1));
+                newValue = ValueOperations.subtract(data, this.variableController.getVariableValue(slot));
                 break;
-            case '*':
+            case Opcodes.ASSIGN_MULTIPLY:
                 // Multiplicative compound assignment:
-                data = this.evaluator.evaluate(data.substring(1).trim());
-                newValue = this.evaluator.evaluate('(' + data + " * " + variableName + ')');
+                data = this.evaluator.evaluate(instruction.getExpression(1));
+                newValue = ValueOperations.multiply(data, this.variableController.getVariableValue(slot));
                 break;
-            case '/':
+            case Opcodes.ASSIGN_DIVIDE:
                 // Divisitive compound assignment:
-                data = this.evaluator.evaluate(data.substring(1).trim());
-                newValue = this.evaluator.evaluate('(' + data + " / " + variableName + ')');
+                data = this.evaluator.evaluate(instruction.getExpression(1));
+                newValue = ValueOperations.divide(data, this.variableController.getVariableValue(slot));
                 break;
-            case '%':
-                // Modulo compound assignment:
-                data = this.evaluator.evaluate(data.substring(1).trim());
-                newValue = this.evaluator.evaluate('(' + data + " / " + variableName + ')');
-            default:
-                throw new UnsupportedOperationException("שגיאה: התו " + assignmentType + " אינו חוקי לפני התו '=' בפעולת השמה בקטע " + data);
+            default: // An assignment that couldn't be compiled:
+                throw instruction.getError();
         }
 
-        this.variableController.updateVariable(variableName, newValue);
+        this.variableController.updateVariable(slot, newValue);
     }
 }
@@ -0,0 +1,16 @@
+package ivrit.interpreter.IvritExceptions;
+
+/**
+ * An exception that stops a program that went over one of its execution limits (or that was cancelled).
+ */
+public class ExecutionLimitException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     * @param message - Which limit the program went over.
+     */
+    public ExecutionLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package ivrit.interpreter.IvritExceptions;
+
+/**
+ * The error of a program whose output was replayed instead of running the program again.
+ * Its message is the message of the error the program stopped with when it actually ran.
+ */
+public class RecordedErrorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     * @param message - The message of the original error.
+     */
+    public RecordedErrorException(String message) {
+        super(message);
+    }
+}
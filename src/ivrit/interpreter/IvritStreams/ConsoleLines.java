@@ -0,0 +1,138 @@
+package ivrit.interpreter.IvritStreams;
+
+import java.util.Arrays;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * The lines the console shows, kept in a ring buffer of a fixed capacity: when a line is added to a full console,
+ * the first line is evicted by moving the start of the ring, so adding and evicting a line take O(1) however long the
+ * output is. A list that shows this model only lays out the lines it shows.
+ * Should only be used on the thread of the GUI (like any swing model).
+ */
+public class ConsoleLines extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+
+    // The lines, starting at firstLine and wrapping around:
+    private final String[] lines;
+    // The index (in lines) of the first line of the console:
+    private int firstLine;
+    // The amount of lines in the console (the last one may be a line that didn't end yet):
+    private int size;
+    // true IFF the last line of the console ended (so the next text starts a new line):
+    private boolean isLastLineEnded;
+
+    /**
+     * Constructor.
+     * @param capacity - The maximum amount of lines the console holds at the same time.
+     */
+    public ConsoleLines(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("מספר השורות של הקונסול חייב להיות חיובי, אך התקבל " + capacity);
+        }
+
+        this.lines = new String[capacity];
+        this.firstLine = 0;
+        this.size = 0;
+        this.isLastLineEnded = true;
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return this.lines[(this.firstLine + index) % this.lines.length];
+    }
+
+    /**
+     * Adds text at the end of the console. The text continues the last line if it didn't end, and every '\n' ends a line.
+     * When the console is full, its first lines are evicted.
+     * @param text - The text to add.
+     */
+    public void append(String text) {
+        // Lines that would be evicted right away are skipped (and so are all the lines of the console):
+        int start = firstKeptIndex(text);
+        if (start > 0)
+            clear();
+
+        int changedLine = -1;
+        int added = 0;
+        int evicted = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            // A line that ends with "\r\n" (on windows) is shown without its '\r':
+            int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+            String line = text.substring(start, lineEnd == -1 ? text.length() : lineEnd);
+            if (!this.isLastLineEnded) {
+                changedLine = this.size - 1;
+                setLine(changedLine, getElementAt(changedLine) + line);
+            } else {
+                if (this.size == this.lines.length) {
+                    // Evicts the first line:
+                    this.firstLine = (this.firstLine + 1) % this.lines.length;
+                    this.size--;
+                    evicted++;
+                }
+
+                setLine(this.size++, line);
+                added++;
+            }
+
+            this.isLastLineEnded = end != -1;
+            if (end == -1)
+                break;
+
+            start = end + 1;
+        }
+
+        // Tells the views what changed:
+        if (evicted > 0)
+            fireIntervalRemoved(this, 0, evicted - 1);
+        if (changedLine - evicted >= 0)
+            fireContentsChanged(this, changedLine - evicted, changedLine - evicted);
+        if (added > 0)
+            fireIntervalAdded(this, this.size - added, this.size - 1);
+    }
+
+    /**
+     * Removes all the lines of the console.
+     */
+    public void clear() {
+        int oldSize = this.size;
+        this.firstLine = 0;
+        this.size = 0;
+        this.isLastLineEnded = true;
+        Arrays.fill(this.lines, null);
+        if (oldSize > 0)
+            fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+
+    /**
+     * @param text - The text that is added to the console.
+     * @return the index of the first character of the text that will still be in the console after it is added
+     * (0 if it has at most as many full lines as the console holds, so all of it will be kept).
+     */
+    private int firstKeptIndex(String text) {
+        // A line that didn't end yet is also kept:
+        int maxLineEnds = text.endsWith("\n") ? this.lines.length : this.lines.length - 1;
+        int lineEnds = 0;
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (text.charAt(i) == '\n' && ++lineEnds > maxLineEnds) {
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @param index - The index of a line in the console.
+     * @param line - The new text of the line.
+     */
+    private void setLine(int index, String line) {
+        this.lines[(this.firstLine + index) % this.lines.length] = line;
+    }
+}
@@ -32,6 +32,17 @@ public class JumpingSourceFileReader {
         return this.sourceFile.getLine(currentLine++);
     }
 
+    /**
+     * Moves this reader past the next line, without reading it.
+     * @return the number of the next line from the source file. If there are no lines left, just return -1.
+     */
+    public int nextLineNumber() {
+        if (currentLine == this.sourceFile.getSourceFileSize())
+            return -1;
+
+        return currentLine++;
+    }
+
     /**
      * Restarts the reader to point at the first line of the source file.
      * Performing readLine() after restarting should return the very first line of the source file.
@@ -2,47 +2,52 @@ package ivrit.interpreter.IvritStreams;
 
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Queue;
-import java.util.Set;
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.HashSet;
 
-import javax.swing.JTextArea;
+import javax.swing.Timer;
 
-import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 
 /**
- * A stream that outputs to the TextArea.
+ * A stream that outputs to the text area of the console (the lines it shows).
+ * Writing never waits for the display: the text is buffered, and the console is updated at a fixed frame rate
+ * with everything that was written since the last frame (or with a few lines per frame, to make the output readable).
  */
 public class TextAreaOutputStream extends OutputStream {
-    //The default amount of lines the console saves at the same time:
+    //The default amount of lines the console saves at the same time (the capacity of its ConsoleLines):
     public static final int defaultMaxConcurrentLines = 1000;
+    //The default amount of times per second the console is updated:
+    public static final int defaultFramesPerSecond = 30;
 
     //The object that control the text in the TextArea:
     private Appender appender;
 
     /**
      * Constructor.
-     * @param textArea - the textArea object we want to write on.
+     * @param consoleLines - the lines of the console we want to write on (they hold at most their capacity of lines).
      */
-    public TextAreaOutputStream(JTextArea textArea) {
-        this(textArea, defaultMaxConcurrentLines);
+    public TextAreaOutputStream(ConsoleLines consoleLines) {
+        this(consoleLines, defaultFramesPerSecond, 0);
     }
 
     /**
      * Constructor.
-     * @param textArea - the textArea object we want to write on.
-     * @param maxConcurrentLines - the maximum amount of lines the console saves at the same time.
+     * @param consoleLines - the lines of the console we want to write on (they hold at most their capacity of lines).
+     * @param framesPerSecond - the amount of times per second the console is updated.
+     * @param maxLinesPerFrame - the maximum amount of lines shown in each update, so the user can follow the output
+     *                           (0 to show everything that was written). Only the display is slowed down, never the writer.
      */
-    public TextAreaOutputStream(JTextArea textArea, int maxConcurrentLines) {
-        if (maxConcurrentLines < 1) {
+    public TextAreaOutputStream(ConsoleLines consoleLines, int framesPerSecond, int maxLinesPerFrame) {
+        if (framesPerSecond < 1) {
             throw new IllegalArgumentException(
-                    "מספר השורות של הקונסול חייב להיות חיובי, אך התקבל " + maxConcurrentLines);
+                    "מספר העדכונים בשנייה של הקונסול חייב להיות חיובי, אך התקבל " + framesPerSecond);
+        }
+        if (maxLinesPerFrame < 0) {
+            throw new IllegalArgumentException(
+                    "מספר השורות בכל עדכון של הקונסול לא יכול להיות שלילי, אך התקבל " + maxLinesPerFrame);
         }
 
-        this.appender = new Appender(textArea, maxConcurrentLines);
+        this.appender = new Appender(consoleLines, 1000 / framesPerSecond, maxLinesPerFrame);
     }
 
     /** 
@@ -82,13 +87,7 @@ public class TextAreaOutputStream extends OutputStream {
      */
     public synchronized void write(byte[] byteArr, int offset, int len) {
         if (this.appender != null) {
-            try { //We force the console to be slower so that it doesnt hurt the user's eyes (it was really annoying before...)
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                //Do nothing!
-            }
-
-            //Decodes the byte array to a string and adds it at the end of the console:
+            //Decodes the byte array to a string and adds it at the end of the console (in one of the next frames):
             this.appender.append(bytesToString(byteArr, offset, len));            
         }
     }
@@ -106,121 +105,115 @@ public class TextAreaOutputStream extends OutputStream {
 
     //Inner class:
     /**
-     * The thread that is responsible for the behaviour of the console (like adding and clearing it).
+     * The object that is responsible for the behaviour of the console (like adding and clearing it).
+     * It updates the console in frames, on the thread of the GUI.
      */
-    private class Appender implements Runnable {
-        //A set that contains all the end of line strings we use:
-        private static final Set<String> endOfLineSet = new HashSet<String>(
-                Arrays.asList("\n", System.getProperty("line.separator", "\n")));
-
-        //The TextArea we want to write on:
-        private final JTextArea textArea;
-        //The maximum amount of lines the console will remember at a time:
-        private final int maxLines;
-        //A linked list that keeps the length of each line of the text area:
-        private final Queue<Integer> lineLengthsQueue;
-        //A list that contains the next strings waiting to be processed:
-        private final List<String> unprocessedList;
-        //The length of the current line:
-        private int curLineLength;
+    private class Appender implements ActionListener {
+        //The lines of the console we want to write on:
+        private final ConsoleLines consoleLines;
+        //The maximum amount of lines shown in each frame (0 if there is no maximum):
+        private final int maxLinesPerFrame;
+        //Updates the console once in every frame, while there is something to update:
+        private final Timer frameTimer;
+        //The text that was written and wasn't shown yet:
+        private final StringBuilder unprocessedText;
         //true IFF the console is empty = has no text in it:
         private boolean isClear;
-        //true IFF this is waiting for CPU time.
+        //true IFF the frame timer is running.
         private boolean isInQueue;
 
         /**
          * Construtor.
-         * @param textArea - the TextArea we want to write on.
-         * @param maxLines - the maximum amount of lines the console will remember at a time.
+         * @param consoleLines - the lines of the console we want to write on.
+         * @param frameMillis - the time between two updates of the console.
+         * @param maxLinesPerFrame - the maximum amount of lines shown in each frame (0 if there is no maximum).
          */
-        private Appender(JTextArea textArea, int maxLines) {
-            this.textArea = textArea;
-            this.maxLines = maxLines;
-            this.lineLengthsQueue = new LinkedList<Integer>();
-            this.unprocessedList = new LinkedList<String>();
-            this.curLineLength = 0;
+        private Appender(ConsoleLines consoleLines, int frameMillis, int maxLinesPerFrame) {
+            this.consoleLines = consoleLines;
+            this.maxLinesPerFrame = maxLinesPerFrame;
+            this.frameTimer = new Timer(frameMillis, this);
+            this.frameTimer.setCoalesce(true);
+            this.unprocessedText = new StringBuilder();
             this.isClear = false;
             this.isInQueue = false;
         }
 
         /**
-         * Saves the given string to be processed later, and tries to queue this thread for running.
+         * Saves the given string to be shown in one of the next frames, and starts the frames if they are not running.
          * @param str - the string to be processed.
          */
         synchronized void append(String str) {
-            this.unprocessedList.add(str);
-
-            if (!this.isInQueue) {
-                this.isInQueue = true;
-                EventQueue.invokeLater(this);
-            }
+            this.unprocessedText.append(str);
+            startFrames();
         }
 
         /**
-         * Clears the console, and tries to queue this thread for running.
+         * Clears the console (in the next frame), and starts the frames if they are not running.
          */
         synchronized void clear() {
             this.isClear = true;
-            this.curLineLength = 0;
-            this.lineLengthsQueue.clear();
-            this.unprocessedList.clear();
+            this.unprocessedText.setLength(0);
+            startFrames();
+        }
 
+        /**
+         * Starts updating the console once in every frame (until there is nothing to update).
+         */
+        private void startFrames() {
             if (!this.isInQueue) {
                 this.isInQueue = true;
-                EventQueue.invokeLater(this);
+                this.frameTimer.start();
             }
         }
 
         /**
-         * Updates the console with the next values needed.
+         * Updates the console with the text of the current frame (called on the thread of the GUI).
          */
-        public synchronized void run() {
-            if (this.isClear) {
-                this.textArea.setText("");
-            }
-
-            for (String str : this.unprocessedList) {
-                this.curLineLength += str.length();
-                if (hasReachedEndOfLine(str)) {
-                    handlePassingMaxLines();
-
-                    //Add the new line:
-                    this.lineLengthsQueue.add(this.curLineLength);
-                    this.curLineLength = 0;
+        @Override
+        public void actionPerformed(ActionEvent event) {
+            boolean clearConsole;
+            String frameText;
+            synchronized (this) {
+                clearConsole = this.isClear;
+                frameText = takeFrameText();
+                this.isClear = false;
+
+                //Nothing more to show, so we stop until the next write:
+                if (this.unprocessedText.length() == 0) {
+                    this.frameTimer.stop();
+                    this.isInQueue = false;
                 }
-                this.textArea.append(str);
+            }
 
+            if (clearConsole) {
+                this.consoleLines.clear();
             }
 
-            this.unprocessedList.clear();
-            this.isClear = false;
-            this.isInQueue = false;
+            if (!frameText.isEmpty()) {
+                this.consoleLines.append(frameText);
+            }
         }
 
         /**
-         * @param str - the string we want to check.
-         * @return true IFF the given string ends with one of our EOL strings = the line ends with it.
+         * Takes the text to show in the current frame out of the unprocessed text.
+         * @return all the unprocessed text, or its first maxLinesPerFrame lines (if there is such a maximum).
          */
-        private boolean hasReachedEndOfLine(String str) {
-            for (String EOL : endOfLineSet) {
-                if (str.endsWith(EOL)) {
-                    return true;
+        private String takeFrameText() {
+            int end = this.unprocessedText.length();
+            if (this.maxLinesPerFrame > 0) {
+                int lines = 0;
+                for (int i = 0; i < end; i++) {
+                    if (this.unprocessedText.charAt(i) == '\n' && ++lines == this.maxLinesPerFrame) {
+                        end = i + 1;
+                        break;
+                    }
                 }
             }
 
-            return false;
+            String frameText = this.unprocessedText.substring(0, end);
+            this.unprocessedText.delete(0, end);
+            return frameText;
         }
 
-        /**
-         * The logic executed when we pass the maximum amount of lines the console holds at the same time.
-         */
-        private void handlePassingMaxLines() {
-            if (this.lineLengthsQueue.size() >= this.maxLines) {
-                int firstLineLength = this.lineLengthsQueue.remove();
-
-                //Deletes the first line (since the given string is the empty string):
-                this.textArea.replaceRange("", 0, firstLineLength);
-            }
-        }
     }
 }
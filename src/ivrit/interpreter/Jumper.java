@@ -13,8 +13,6 @@ import ivrit.interpreter.IvritStreams.JumpingSourceFileReader;
 public class Jumper {
     // Contains a map that connects the jump flags to how many lines need to be skipped in order to get to the correct line of code.
     private Map<String, Integer> jumpMap;
-    // A stack that contains the links we are expecting to see in a LIFO order (Used in the if mechanism).
-    private Stack<JumpFlagLinker> jumpFlagsLinksStack;
     // Maps between the function name and the line it's code starts at.
     private Map<String, Integer> funcMap;
     // A stack that contains the function return lines (the top item is the number of the line a return should go back to).
@@ -28,7 +26,6 @@ public class Jumper {
      */
     public Jumper(Map<String, Integer> jumpMap, Map<String, Integer> funcMap) {
         this.jumpMap = jumpMap;
-        this.jumpFlagsLinksStack = new Stack<JumpFlagLinker>();
         this.funcMap = funcMap;
         this.returnLinesStack = new Stack<>();
         this.reader = null;
@@ -41,18 +38,37 @@ public class Jumper {
         this.reader = reader;
     }
 
+    /**
+     * @param jumpFlag - The jump flag to look for.
+     * @return the number of the line the given jump flag points to, or -1 if there is no such jump flag.
+     */
+    public int getJumpFlagLine(String jumpFlag) {
+        Integer line = this.jumpMap.get(jumpFlag);
+        return line == null ? -1 : line;
+    }
+
+    /**
+     * @param function - The name of the function to look for.
+     * @return the number of the line the code of the given function starts at, or -1 if there is no such function.
+     */
+    public int getFunctionLine(String function) {
+        Integer line = this.funcMap.get(function);
+        return line == null ? -1 : line;
+    }
+
     /**
      * Makes the active reader jump to the correct jump flag.
+     * @param line - The line the jump flag points to (-1 if the jump flag doesn't exist).
      * @param jumpFlag - The jump flag to jump to.
      * @throws NullPointerException when the given jumpFlag doesn't exist in the processed file.
      * @throws UncheckedIOException when an exception that cannot be traced happened (but probably with the reader).
      */
-    public void activeReaderJumpTo(String jumpFlag) {
-        if (!jumpMap.containsKey(jumpFlag))
+    public void activeReaderJumpTo(int line, String jumpFlag) {
+        if (line == -1)
             throw new NullPointerException("שגיאה: לא נמצאה נקודת קפיצה בשם '" + jumpFlag + "'.");
 
         try {
-            this.reader.goToLine(this.jumpMap.get(jumpFlag));
+            this.reader.goToLine(line);
         } catch (IndexOutOfBoundsException exception) {
             throw new IndexOutOfBoundsException("שגיאה: הקפיצה נתקלה בשגיאה אל נקודת הקפיצה '" + jumpFlag + "'.");
         }
@@ -60,17 +76,18 @@ public class Jumper {
 
     /**
      * Makes the active reader jump to the start of the code of a function.
+     * @param line - The line the code of the function starts at (-1 if the function doesn't exist).
      * @param function - The name of the function to jump to.
      * @throws NullPointerException when the given function doesn't exist in the processed file.
      * @throws UncheckedIOException when a problem occured when jumping to a function.
      */
-    public void activeReaderStartFunction(String function) {
-        if (!funcMap.containsKey(function))
+    public void activeReaderStartFunction(int line, String function) {
+        if (line == -1)
             throw new NullPointerException("שגיאה: לא נמצאה פונקציה בשם '" + function + "'.");
 
         try {
             this.returnLinesStack.push(this.reader.getCurrentLine());
-            this.reader.goToLine(this.funcMap.get(function));
+            this.reader.goToLine(line);
 
         } catch (IndexOutOfBoundsException exception) {
             throw new IndexOutOfBoundsException("שגיאה: הקפיצה נתקלה בשגיאה אל הפונקציה '" + function + "'.");
@@ -94,45 +111,4 @@ public class Jumper {
             throw new IndexOutOfBoundsException("שגיאה: חזרה מתוך פונקציה נכשלה.");
         }
     }
-
-    /**
-     * Adds a new jump flag link.
-     */
-    public void addJumpFlagLink(String triggerFlag, String endFlag) {
-        this.jumpFlagsLinksStack.add(new JumpFlagLinker(triggerFlag, endFlag));
-    }
-
-    /**
-     * If the given string is the trigger jump flag of the next jump flag link we are expecting, 
-     * jumps the reader to the linked jump flag.
-     * @param jumpFlag - The flag we read.
-     */
-    public void handleJumpFlagLinks(String jumpFlag) {
-        if (this.jumpFlagsLinksStack.empty())
-            return;
-
-        if (jumpFlag.equals(this.jumpFlagsLinksStack.peek().triggerFlag)) {
-            activeReaderJumpTo(this.jumpFlagsLinksStack.pop().endFlag);
-        }
-    }
-
-    /**
-     * An object that links a trigger jump flag to an end jump flag.
-     */
-    private class JumpFlagLinker {
-        //The jump flag that starts the link.
-        private String triggerFlag;
-        //The jump flag to link to.
-        private String endFlag;
-
-        /**
-         * Constructor.
-         * @param triggerFlag - The jump flag that starts the link.
-         * @param endFlag - The jump flag to link to.
-         */
-        private JumpFlagLinker(String triggerFlag, String endFlag) {
-            this.triggerFlag = triggerFlag;
-            this.endFlag = endFlag;
-        }
-    }
 }
@@ -4,6 +4,7 @@ import java.util.Locale;
 
 import ivrit.interpreter.UI.IvritInterpreterGUI;
 import ivrit.interpreter.UI.UI;
+import ivrit.interpreter.UserIO.BlockingIO;
 import ivrit.interpreter.UserIO.ConsoleIO;
 import ivrit.interpreter.UserIO.IvritIO;
 import ivrit.interpreter.UserIO.UserInput;
@@ -19,7 +20,8 @@ public class Main {
 
         // Initiazlie what we need for the gui and the interpreter:
         UserInput userInput = new UserInput();
-        IvritIO io = new ConsoleIO(userInput);
+        // The program waits for the input the GUI completes, instead of polling for it:
+        IvritIO io = new BlockingIO(new ConsoleIO(userInput));
         UI ui = new IvritInterpreterGUI(io, userInput);
         SourceCodeLoader codeLoader = new FileSourceCodeLoader();
         FlowController controller = new FlowController(io, codeLoader);
@@ -30,5 +32,6 @@ public class Main {
         // We finished everything.
         io.print("הפירוש הסתיים");
         io.print("ניתן לסגור את החלון בבטחה.");
+        io.flush();
     }
 }
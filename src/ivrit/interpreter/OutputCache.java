@@ -0,0 +1,15 @@
+package ivrit.interpreter;
+
+/**
+ * A cache of the outputs of programs that never ask for an input, so running the same source code again only replays its output.
+ * The outputs are found by the hash of the source code of their programs, and the size of an output is the number of characters in it.
+ */
+public class OutputCache extends SizeBoundedCache<RecordedOutput> {
+    /**
+     * Constructor.
+     * @param maxSize - The maximal total size (in characters) of the cached outputs.
+     */
+    public OutputCache(long maxSize) {
+        super(maxSize, RecordedOutput::getSize);
+    }
+}
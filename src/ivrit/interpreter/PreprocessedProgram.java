@@ -0,0 +1,117 @@
+package ivrit.interpreter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ivrit.interpreter.Compilation.Instruction;
+import ivrit.interpreter.Compilation.InstructionCompiler;
+import ivrit.interpreter.Compilation.InstructionLinker;
+import ivrit.interpreter.Variables.ArgumentData;
+import ivrit.interpreter.Variables.SymbolTable;
+
+/**
+ * Everything the preprocessing of a source file produces: the preprocessed file, where its jump flags and functions are,
+ * the parameters of its functions, and its linked instructions together with the slots of the names they use.
+ * It can't be changed after it was created, so a single preprocessed program can be run many times, even at the same time.
+ */
+public final class PreprocessedProgram {
+    // The source file after it was preprocessed:
+    private final SourceFile preprocessedFile;
+    // Maps between the jump flags and the lines they point to:
+    private final Map<String, Integer> jumpMap;
+    // Maps between the function names and the lines their code starts at:
+    private final Map<String, Integer> funcMap;
+    // Maps between the function names and the information about their parameters:
+    private final Map<String, List<ArgumentData>> functionDefinitions;
+    // The number of characters in the preprocessed file (roughly how much memory the program takes):
+    private final long size;
+    // true IFF a line of the program asks the user for an input:
+    private final boolean readsInput;
+    // The compiled and linked instructions of the preprocessed file (instruction i is the compiled line i):
+    private final Instruction[] instructions;
+    // The slots of the names the instructions use (frozen, so every run adds its own names on top of it):
+    private final SymbolTable symbols;
+
+    /**
+     * Constructor.
+     * @param preprocessedFile - The source file after it was preprocessed.
+     * @param jumpMap - Maps between the jump flags and the lines they point to.
+     * @param funcMap - Maps between the function names and the lines their code starts at.
+     * @param elseFlags - Maps between the index of every If-Statement line and the jump flag its "else" part starts at.
+     * @param functionDefinitions - Maps between the function names and the information about their parameters.
+     * @param readsInput - true IFF a line of the program asks the user for an input.
+     */
+    public PreprocessedProgram(SourceFile preprocessedFile, Map<String, Integer> jumpMap, Map<String, Integer> funcMap,
+                               Map<Integer, String> elseFlags, Map<String, List<ArgumentData>> functionDefinitions, boolean readsInput) {
+        this.preprocessedFile = preprocessedFile;
+        this.jumpMap = Collections.unmodifiableMap(new HashMap<>(jumpMap));
+        this.funcMap = Collections.unmodifiableMap(new HashMap<>(funcMap));
+
+        Map<String, List<ArgumentData>> definitions = new HashMap<>();
+        for (Map.Entry<String, List<ArgumentData>> entry : functionDefinitions.entrySet())
+            definitions.put(entry.getKey(), List.copyOf(entry.getValue()));
+        this.functionDefinitions = Collections.unmodifiableMap(definitions);
+
+        long size = 0;
+        for (int i = 0; i < preprocessedFile.getSourceFileSize(); i++)
+            size += preprocessedFile.getLine(i).length();
+        this.size = size;
+        this.readsInput = readsInput;
+
+        this.symbols = new SymbolTable();
+        this.instructions = new InstructionLinker(generateJumper()).link(new InstructionCompiler(this.symbols).compile(preprocessedFile, elseFlags));
+        this.symbols.freeze();
+    }
+
+    /**
+     * @return the source file after it was preprocessed. This is the file the interpreter should run.
+     */
+    public SourceFile getPreprocessedFile() {
+        return this.preprocessedFile;
+    }
+
+    /**
+     * @return the information about the parameters of every function (it can't be changed).
+     */
+    public Map<String, List<ArgumentData>> getFunctionDefinitions() {
+        return this.functionDefinitions;
+    }
+
+    /**
+     * @return the compiled and linked instructions of the preprocessed file (shared by all the runs, so they shouldn't be changed).
+     */
+    public Instruction[] getInstructions() {
+        return this.instructions;
+    }
+
+    /**
+     * @return the frozen slots of the names the instructions use (see SymbolTable(SymbolTable)).
+     */
+    public SymbolTable getSymbols() {
+        return this.symbols;
+    }
+
+    /**
+     * @return a new jumper object for a run of the program.
+     */
+    public Jumper generateJumper() {
+        return new Jumper(this.jumpMap, this.funcMap);
+    }
+
+    /**
+     * @return the number of characters in the preprocessed file (roughly how much memory the program takes).
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return true IFF a line of the program asks the user for an input
+     * (a program that never does always prints the same output, so its output can be replayed instead of running it).
+     */
+    public boolean readsInput() {
+        return this.readsInput;
+    }
+}
@@ -2,11 +2,13 @@ package ivrit.interpreter;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import ivrit.interpreter.IvritStreams.JumpingSourceFileReader;
@@ -17,8 +19,12 @@ import ivrit.interpreter.Variables.ArgumentData;
  * This reads an entire source file and processes whatever it needs for the interpreter to work later.
  */
 public class Preprocessor {
-    // The file to be preprocessed
-    private SourceFile sourceFile; 
+    // The messages that are printed when the preprocessing starts and ends:
+    public static final String PREPROCESSING_STARTED_MESSAGE = "מתחיל עיבוד מקדים של הקוד.";
+    public static final String PREPROCESSING_FINISHED_MESSAGE = "העיבוד המקדים הסתיים.";
+
+    // The file to be preprocessed (after the If-Statements and Loops are turned to jumps, this is the preprocessed file).
+    private SourceFile sourceFile;
     // The io object used for writing to the user.   
     private IvritIO io;
     // Contains a map that connects the titles for jumps,
@@ -26,6 +32,10 @@ public class Preprocessor {
     private Map<String, Integer> jumpMap;
     // Maps between the function name and the line it's code starts at.
     private Map<String, Integer> funcMap;
+    // true IFF a line of the file asks the user for an input (so its output can't be known without running it):
+    private boolean readsInput;
+    // Maps between the index of every If-Statement line in the preprocessed file and the jump flag its "else" part starts at:
+    private Map<Integer, String> elseFlags;
 
     /**
      * Constructor.
@@ -36,6 +46,8 @@ public class Preprocessor {
         this.io = io;
         this.jumpMap = new HashMap<>();
         this.funcMap = new HashMap<>();
+        this.readsInput = false;
+        this.elseFlags = new HashMap<>();
     }
 
     /**
@@ -49,7 +61,7 @@ public class Preprocessor {
 
             JumpingSourceFileReader reader = new JumpingSourceFileReader(sourceFile);
             
-            io.print("מתחיל עיבוד מקדים של הקוד.");
+            io.print(PREPROCESSING_STARTED_MESSAGE);
 
             // Maps between the function name and the information about it's arguments.
             Map<String, List<ArgumentData>> functionDeclarations = new HashMap<>();
@@ -60,7 +72,7 @@ public class Preprocessor {
                 linesCounter++;
             }
 
-            io.print("העיבוד המקדים הסתיים.");
+            io.print(PREPROCESSING_FINISHED_MESSAGE);
             return functionDeclarations;
         } catch(IOException exception) {
             //We can't really recover if we can't read from the source file...
@@ -68,16 +80,30 @@ public class Preprocessor {
         }
     }
 
+    /**
+     * Preprocesses the file.
+     * @return everything the preprocessing produced, in an object that can't be changed (so it can be run many times).
+     */
+    public PreprocessedProgram preprocess() {
+        Map<String, List<ArgumentData>> functionDefinitions = startPreprocessing();
+        return new PreprocessedProgram(this.sourceFile, this.jumpMap, this.funcMap, this.elseFlags, functionDefinitions, this.readsInput);
+    }
+
     /**
     * Turns all If-Statements and Loops in the object's SourceFile to jumps.
+    * The "then" part of an If-Statement ends with a jump over its "else" part, 
+    * so the interpreter only needs to jump when the condition is false.
+    * Every If-Statement line stays 'אם condition', and the flag its "else" part starts at is kept in elseFlags.
     */
     private void preprocessIfsAndLoops() {
-        int currentIfLabel = 0;
-        int currentLoopLabel = 0;
         int newIfLabel = 0;
         int newLoopLabel = 0;
         Stack<Boolean> isIfFinishStack = new Stack<>();
-        List<String> convertedLines = new LinkedList<>();
+        // The label numbers of the If-Statements and Loops that weren't closed yet, in the same order as isIfFinishStack:
+        Stack<Integer> labelsStack = new Stack<>();
+        // The label numbers of the If-Statements that already have an "else" part:
+        Set<Integer> ifsWithElse = new HashSet<>();
+        List<String> convertedLines = new ArrayList<>(this.sourceFile.getSourceFileSize());
 
         for (int lineIndex=0; lineIndex<this.sourceFile.getSourceFileSize(); lineIndex++) {
             String currLine = this.sourceFile.getLine(lineIndex);
@@ -85,48 +111,58 @@ public class Preprocessor {
                 if (currLine.length() == 3)
                     throw new UncheckedIOException(new IOException("שגיאה: העיבוד המקדים נכשל כי נמצא שימוש ב 'אם' ללא תנאי עוקב בשורה " + (lineIndex + 1)));
                 String condition = currLine.substring(3);
-                currentIfLabel++;
                 newIfLabel++;
 
-                convertedLines.add("אם " + condition + " אז @אם_" + newIfLabel + ", אחרת @אחרת_" + newIfLabel + ", בסוף @סוף_" + newIfLabel);
+                this.elseFlags.put(convertedLines.size(), "אחרת_" + newIfLabel);
+                convertedLines.add("אם " + condition);
                 convertedLines.add("@אם_" + newIfLabel);
                 isIfFinishStack.push(true);
+                labelsStack.push(newIfLabel);
             } else if (currLine.startsWith("אחרת")) {
+                if (isIfFinishStack.isEmpty() || !isIfFinishStack.peek() || ifsWithElse.contains(labelsStack.peek()))
+                    throw new UncheckedIOException(new IOException("שגיאה: נמצא 'אחרת' שאינו שייך ל 'אם' בשורה " + (lineIndex + 1)));
+
+                int currentIfLabel = labelsStack.peek();
+                ifsWithElse.add(currentIfLabel);
+                // The "then" part is over, so skip the "else" part:
+                convertedLines.add("קפוץ-ל סוף_" + currentIfLabel);
                 convertedLines.add("@אחרת_" + currentIfLabel);
             } else if (currLine.startsWith("כל עוד ")) {
                 if (currLine.length() == 7)
                     throw new UncheckedIOException(new IOException("שגיאה: העיבוד המקדים נכשל כי נמצא שימוש ב 'כל עוד' ללא תנאי עוקב בשורה " + (lineIndex + 1)));
 
                 String condition = currLine.substring(7);
-                currentLoopLabel++;
                 newLoopLabel++;  
                 
                 convertedLines.add("@לולאה_" + newLoopLabel);
-                convertedLines.add("אם " + condition + " אז @גוף_לולאה_" + newLoopLabel + ", אחרת @סוף_לולאה_" + newLoopLabel + ", בסוף @סוף_לולאה_" + newLoopLabel);
+                this.elseFlags.put(convertedLines.size(), "סוף_לולאה_" + newLoopLabel);
+                convertedLines.add("אם " + condition);
                 convertedLines.add("@גוף_לולאה_" + newLoopLabel);
                 isIfFinishStack.push(false);
+                labelsStack.push(newLoopLabel);
             } else if (currLine.startsWith("סוף")) {
                 if (isIfFinishStack.isEmpty())
                     throw new UncheckedIOException(new IOException("שגיאה: נמצא 'סוף' מיותר בשורה " + (lineIndex + 1)));
 
+                int currentLabel = labelsStack.pop();
                 if (isIfFinishStack.pop()) { // This is the finish of an If-Statement
-                    convertedLines.add("@סוף_" + currentIfLabel);
-                    currentIfLabel--;
+                    if (!ifsWithElse.remove(currentLabel)) // An If-Statement without an "else" part continues here when its condition is false
+                        convertedLines.add("@אחרת_" + currentLabel);
+                    convertedLines.add("@סוף_" + currentLabel);
                 } else { // This is the finish of a Loop
-                    convertedLines.add("קפוץ-ל לולאה_" + currentLoopLabel);
-                    convertedLines.add("@סוף_לולאה_" + currentLoopLabel);
-                    currentLoopLabel--;
+                    convertedLines.add("קפוץ-ל לולאה_" + currentLabel);
+                    convertedLines.add("@סוף_לולאה_" + currentLabel);
                 }
             } else convertedLines.add(currLine);
         }
 
-        if (currentIfLabel > 0)
+        if (isIfFinishStack.contains(true))
             throw new UncheckedIOException(new IOException("שגיאה: קיים 'אם' שאינו נסגר בעזרת 'סוף'!"));
 
-        if (currentLoopLabel > 0)
+        if (!isIfFinishStack.isEmpty())
             throw new UncheckedIOException(new IOException("שגיאה: קיימת לולאת 'כל עוד' שאינה נסגרת בעזרת 'סוף'!"));
 
-        this.sourceFile.setLines(convertedLines);
+        this.sourceFile = new SourceFile(convertedLines);
     }
 
     /**
@@ -143,8 +179,12 @@ public class Preprocessor {
             return;
         }
 
+        int endOfAction = currentLine.indexOf(' ');
+        if (InterpreterCommands.INPUT.matches(endOfAction == -1 ? currentLine : currentLine.substring(0, endOfAction)))
+            this.readsInput = true;
+
         if (currentLine.startsWith(Interpreter.FUNCTION_PREFIX)) { // Handle function definitions:
-            List<String> lineWords = new LinkedList<>(Arrays.asList(currentLine.split(" ")));
+            List<String> lineWords = new ArrayList<>(Arrays.asList(currentLine.split(" ")));
             if (lineWords.size() < 6 || (!currentLine.contains("מקבלת")) || (!currentLine.contains("מחזירה")))
                 throw new IOException("הגדרת הפונקציה בשורה " + linesCounter + " אינה תקינה.");
 
@@ -157,7 +197,7 @@ public class Preprocessor {
     }
 
     private List<ArgumentData> preprocessFunctionDeclaration(List<String> lineTokens) {
-        List<ArgumentData> results = new LinkedList<>();
+        List<ArgumentData> results = new ArrayList<>();
         if (lineTokens.get(3).equals("כלום"))
             return results;
 
@@ -183,6 +223,13 @@ public class Preprocessor {
         return results;
     }
 
+    /**
+     * @return the source file after it was preprocessed. This is the file the interpreter should run.
+     */
+    public SourceFile getPreprocessedFile() {
+        return this.sourceFile;
+    }
+
     /**
      * @return a jumper object for the preprocessed file.
      */
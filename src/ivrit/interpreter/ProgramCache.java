@@ -0,0 +1,15 @@
+package ivrit.interpreter;
+
+/**
+ * A cache of preprocessed programs, so running the same source code again skips the preprocessing.
+ * The programs are found by the hash of their source code, and the size of a program is the number of characters in it.
+ */
+public class ProgramCache extends SizeBoundedCache<PreprocessedProgram> {
+    /**
+     * Constructor.
+     * @param maxSize - The maximal total size (in characters) of the cached programs.
+     */
+    public ProgramCache(long maxSize) {
+        super(maxSize, PreprocessedProgram::getSize);
+    }
+}
@@ -0,0 +1,58 @@
+package ivrit.interpreter;
+
+import java.util.List;
+
+/**
+ * Everything a single run of a program printed, so it can be replayed without running the program again.
+ */
+public final class RecordedOutput {
+    // The printed messages, in their order:
+    private final List<String> messages;
+    // The index of the first message the program printed after its interpretation started (the output limit only counts these):
+    private final int interpretationStart;
+    // The message of the error that stopped the program (null if it ended without an error):
+    private final String errorMessage;
+    // How many lines the program executed:
+    private final long executedInstructions;
+    // The number of characters in all the messages:
+    private final long size;
+
+    /**
+     * Constructor.
+     * @param messages - The printed messages, in their order.
+     * @param interpretationStart - The index of the first message the program printed after its interpretation started.
+     * @param errorMessage - The message of the error that stopped the program (null if it ended without an error).
+     * @param executedInstructions - How many lines the program executed.
+     */
+    public RecordedOutput(List<String> messages, int interpretationStart, String errorMessage, long executedInstructions) {
+        this.messages = List.copyOf(messages);
+        this.interpretationStart = interpretationStart;
+        this.errorMessage = errorMessage;
+        this.executedInstructions = executedInstructions;
+
+        long size = errorMessage == null ? 0 : errorMessage.length();
+        for (String message : messages)
+            size += message.length();
+        this.size = size;
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public int getInterpretationStart() {
+        return interpretationStart;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public long getExecutedInstructions() {
+        return executedInstructions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,37 @@
+package ivrit.interpreter;
+
+/**
+ * Measurements of a single run of an Ivrit program.
+ */
+public class RunStatistics {
+    // How many nanoseconds it took to preprocess and compile the program:
+    private final long preprocessingNanos;
+    // How many nanoseconds it took to interpret the program:
+    private final long interpretationNanos;
+    // How many instructions (lines of the preprocessed file) were executed:
+    private final long executedInstructions;
+
+    /**
+     * Constructor.
+     * @param preprocessingNanos - How many nanoseconds it took to preprocess and compile the program.
+     * @param interpretationNanos - How many nanoseconds it took to interpret the program.
+     * @param executedInstructions - How many instructions were executed.
+     */
+    public RunStatistics(long preprocessingNanos, long interpretationNanos, long executedInstructions) {
+        this.preprocessingNanos = preprocessingNanos;
+        this.interpretationNanos = interpretationNanos;
+        this.executedInstructions = executedInstructions;
+    }
+
+    public long getPreprocessingNanos() {
+        return preprocessingNanos;
+    }
+
+    public long getInterpretationNanos() {
+        return interpretationNanos;
+    }
+
+    public long getExecutedInstructions() {
+        return executedInstructions;
+    }
+}
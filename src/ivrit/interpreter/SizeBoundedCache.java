@@ -0,0 +1,91 @@
+package ivrit.interpreter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache that removes its least recently used values when their total size is over its maximal size.
+ * It counts how many times values were found (hits), weren't found (misses), and were removed to make room (evictions).
+ * It is safe to use the same cache from many threads.
+ * @param <V> - The type of the cached values.
+ */
+public class SizeBoundedCache<V> {
+    // The maximal total size of the cached values:
+    private final long maxSize;
+    // Computes the size of a value:
+    private final ToLongFunction<V> sizeOf;
+    // The cached values by their keys, from the least recently used to the most recently used:
+    private final LinkedHashMap<String, V> values;
+    // The total size of the cached values:
+    private long size;
+    // How many times a value was found in the cache:
+    private long hits;
+    // How many times a value wasn't found in the cache:
+    private long misses;
+    // How many values were removed from the cache to make room for others:
+    private long evictions;
+
+    /**
+     * Constructor.
+     * @param maxSize - The maximal total size of the cached values.
+     * @param sizeOf - Computes the size of a value.
+     */
+    public SizeBoundedCache(long maxSize, ToLongFunction<V> sizeOf) {
+        this.maxSize = maxSize;
+        this.sizeOf = sizeOf;
+        this.values = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param key - The key of the value.
+     * @return the cached value with the given key, or null if it isn't cached.
+     */
+    public synchronized V get(String key) {
+        V value = this.values.get(key);
+        if (value == null)
+            this.misses++;
+        else
+            this.hits++;
+
+        return value;
+    }
+
+    /**
+     * Caches a value (unless it is bigger than the whole cache), and removes the least recently used values if needed.
+     * @param key - The key of the value.
+     * @param value - The value to cache.
+     */
+    public synchronized void put(String key, V value) {
+        long valueSize = this.sizeOf.applyAsLong(value);
+        if (valueSize > this.maxSize)
+            return;
+
+        V previous = this.values.put(key, value);
+        if (previous != null)
+            this.size -= this.sizeOf.applyAsLong(previous);
+        this.size += valueSize;
+
+        Iterator<V> leastRecentlyUsed = this.values.values().iterator();
+        while (this.size > this.maxSize) {
+            this.size -= this.sizeOf.applyAsLong(leastRecentlyUsed.next());
+            leastRecentlyUsed.remove();
+            this.evictions++;
+        }
+    }
+
+    /**
+     * @return the counters of the cache: hits, misses, evictions, how many values are cached and their total size.
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put("hits", this.hits);
+        statistics.put("misses", this.misses);
+        statistics.put("evictions", this.evictions);
+        statistics.put("entries", (long) this.values.size());
+        statistics.put("size", this.size);
+        return statistics;
+    }
+}
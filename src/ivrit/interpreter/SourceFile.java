@@ -1,30 +1,28 @@
 package ivrit.interpreter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 /**
  * A class that holds the lines of code of an Ivrit code file.
+ * The lines are stored in an array and can't be changed after construction,
+ * which gives O(1) access to every line and allows sharing the same object between threads.
  */
-public class SourceFile {
-    /** 
-     * A list that contains all the lines of code from the source file, in their original order.
+public final class SourceFile {
+    /**
+     * An array that contains all the lines of code from the source file, in their original order.
      * This means we dont include empty lines or lines that start with # (meaning comment lines).
      */
-    List<String> codeLines;
+    private final String[] codeLines;
 
     /**
      * Constructor.
      * @param codeLines - A list of strings that contains all the lines of codes in their respective order.
      */
     public SourceFile(List<String> codeLines) {
-        this.codeLines = codeLines;
-    }
-
-    /**
-     * Sets the lines of this source file to the given value.
-     */
-    public void setLines(List<String> codeLines) {
-        this.codeLines = codeLines;
+        this.codeLines = codeLines.toArray(new String[0]);
     }
 
     /**
@@ -35,17 +33,38 @@ public class SourceFile {
     public String getLine(int lineNumber) throws IndexOutOfBoundsException {
         if (lineNumber < 0)
             throw new IndexOutOfBoundsException("שגיאה: מספר שורה אינו יכול להיות שלילי.");
-        
-        if (lineNumber >= this.codeLines.size()) 
+
+        if (lineNumber >= this.codeLines.length)
             throw new IndexOutOfBoundsException("מספר השורה חרג ממספר השורות בקובץ המקור.");
 
-        return this.codeLines.get(lineNumber);
+        return this.codeLines[lineNumber];
     }
 
     /**
      * @return the number of code lines in this source file.
      */
     public int getSourceFileSize() {
-        return this.codeLines.size();
+        return this.codeLines.length;
+    }
+
+    /**
+     * @return a SHA-256 hash (in hex) of the lines of this source file, used to find the program in the caches.
+     */
+    public String getContentHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : this.codeLines) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest())
+                hash.append(String.format("%02x", b));
+            return hash.toString();
+        } catch (NoSuchAlgorithmException exception) {
+            // Every JVM must support SHA-256:
+            throw new IllegalStateException(exception);
+        }
     }
 }
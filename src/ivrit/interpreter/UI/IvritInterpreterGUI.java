@@ -7,11 +7,14 @@ import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JList;
 import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 
+import ivrit.interpreter.IvritStreams.ConsoleLines;
 import ivrit.interpreter.IvritStreams.TextAreaOutputStream;
 import ivrit.interpreter.UserIO.IvritIO;
 import ivrit.interpreter.UserIO.UserInput;
@@ -21,6 +24,7 @@ import java.awt.Component;
 import java.awt.ComponentOrientation;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.GridLayout;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
@@ -83,11 +87,50 @@ public class IvritInterpreterGUI extends AbstractUI {
      * @return - the center border of the console frame.
      */
     private Component initializeCenterBorder() {
-        JTextArea consoleOutputText = new JTextArea("התחלה\n");
+        ConsoleLines consoleLines = new ConsoleLines(TextAreaOutputStream.defaultMaxConcurrentLines);
+        consoleLines.append("התחלה\n");
+
+        //A list only lays out the lines it shows, so a long output doesn't slow the console down:
+        JList<String> consoleOutputText = new JList<String>(consoleLines);
         consoleOutputText.setFont(TEXT_FONT);
-        consoleOutputText.setEditable(false);
         consoleOutputText.setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
-        TextAreaOutputStream consoleOutputStream = new TextAreaOutputStream(consoleOutputText);
+        FontMetrics metrics = consoleOutputText.getFontMetrics(TEXT_FONT);
+        consoleOutputText.setFixedCellHeight(metrics.getHeight());
+        consoleOutputText.setFixedCellWidth(metrics.stringWidth("התחלה"));
+        consoleLines.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                showLines(e.getIndex0(), e.getIndex1());
+                //Keeps showing the end of the output:
+                consoleOutputText.ensureIndexIsVisible(e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                showLines(e.getIndex0(), e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+            }
+
+            /**
+             * Widens the lines of the console (if needed) so the given lines are shown whole.
+             * Only the new lines are measured, instead of all the lines of the console.
+             */
+            private void showLines(int first, int last) {
+                int width = consoleOutputText.getFixedCellWidth();
+                for (int i = first; i <= last; i++) {
+                    width = Math.max(width, metrics.stringWidth(consoleLines.getElementAt(i)));
+                }
+
+                if (width > consoleOutputText.getFixedCellWidth()) {
+                    consoleOutputText.setFixedCellWidth(width);
+                }
+            }
+        });
+
+        TextAreaOutputStream consoleOutputStream = new TextAreaOutputStream(consoleLines);
         PrintStream consolePrintStream = new PrintStream(consoleOutputStream);
         System.setOut(consolePrintStream);
         System.setErr(consolePrintStream);
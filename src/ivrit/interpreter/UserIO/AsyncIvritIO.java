@@ -0,0 +1,61 @@
+package ivrit.interpreter.UserIO;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The asynchronous sibling of IvritIO: nothing here waits for the user.
+ * Output is handed over in batches and delivered later (in order), and an input is a stage that completes when the user gives it,
+ * so a program that waits for an input can be continued from the stage instead of holding a thread.
+ * Use BlockingIO to run a program (which uses an IvritIO) with an object of this interface.
+ */
+public interface AsyncIvritIO {
+    /**
+     * Sends messages to the user, without waiting for them to be delivered. The messages are delivered in their order.
+     * @param messages - The messages to be sent.
+     */
+    public void printAll(List<String> messages);
+
+    /**
+     * Sends a message to the user, without waiting for it to be delivered.
+     * @param message - The message to be sent.
+     */
+    public default void print(String message) {
+        printAll(List.of(message));
+    }
+
+    /**
+     * Sends a message to the user, without making a string of it first (if this object can do so).
+     * @param message - The message to be sent.
+     */
+    public default void print(CharSequence message) {
+        print(message.toString());
+    }
+
+    /**
+     * Sends a message to the user, by appending its text straight into the output (if this object can do so).
+     * @param message - The message to be sent.
+     */
+    public default void print(IvritPrintable message) {
+        StringBuilder text = new StringBuilder();
+        message.appendTo(text);
+        print(text);
+    }
+
+    /**
+     * Sends the output that was printed and wasn't sent yet (if this object buffers its output).
+     */
+    public default void flush() {
+    }
+
+    /**
+     * Asks the user for an input. Every call asks for a single input, and the stages complete in the order of the calls.
+     * @return a stage that completes with the input of the user.
+     */
+    public CompletionStage<String> requestUserInput();
+
+    /**
+     * @return a stage that completes with the source code (whether it be the actual source code or a path to it).
+     */
+    public CompletionStage<String> requestCode();
+}
@@ -0,0 +1,104 @@
+package ivrit.interpreter.UserIO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lets a program (that uses an IvritIO) run with an AsyncIvritIO: getUserInput waits for the stage of the input,
+ * and pollUserInput returns the input only once its stage completed (the same request is kept until then).
+ */
+public class BlockingIO implements IvritIO {
+    // The asynchronous IO object that actually prints and gets inputs:
+    private final AsyncIvritIO io;
+    // The input the program asked for and didn't take yet (null if there is no such input):
+    private CompletableFuture<String> pendingInput;
+
+    /**
+     * Constructor.
+     * @param io - The asynchronous IO object that actually prints and gets inputs.
+     */
+    public BlockingIO(AsyncIvritIO io) {
+        this.io = io;
+        this.pendingInput = null;
+    }
+
+    @Override
+    public void print(String message) {
+        this.io.print(message);
+    }
+
+    @Override
+    public void print(CharSequence message) {
+        this.io.print(message);
+    }
+
+    @Override
+    public void print(IvritPrintable message) {
+        this.io.print(message);
+    }
+
+    @Override
+    public void flush() {
+        this.io.flush();
+    }
+
+    @Override
+    public String getUserInput() {
+        CompletableFuture<String> input = takePendingInput();
+        return waitFor(input == null ? this.io.requestUserInput() : input);
+    }
+
+    @Override
+    public synchronized String pollUserInput() {
+        if (this.pendingInput == null)
+            this.pendingInput = this.io.requestUserInput().toCompletableFuture();
+
+        if (!this.pendingInput.isDone())
+            return null;
+
+        return waitFor(takePendingInput());
+    }
+
+    /**
+     * @return the stage of the input the program asked for (with pollUserInput) and didn't take yet,
+     * or null if there is no such input. The program should continue when it completes.
+     */
+    public synchronized CompletionStage<String> getPendingUserInput() {
+        return this.pendingInput;
+    }
+
+    @Override
+    public String getCode() {
+        return waitFor(this.io.requestCode());
+    }
+
+    /**
+     * @return the input the program asked for and didn't take yet (null if there is no such input), which is now taken.
+     */
+    private synchronized CompletableFuture<String> takePendingInput() {
+        CompletableFuture<String> input = this.pendingInput;
+        this.pendingInput = null;
+        return input;
+    }
+
+    /**
+     * Waits for a stage to complete.
+     * @param stage - The stage to wait for.
+     * @return the value of the stage (or an empty string if the thread was interrupted while waiting).
+     * @throws RuntimeException when the stage completed with an error.
+     */
+    private static String waitFor(CompletionStage<String> stage) {
+        try {
+            return stage.toCompletableFuture().get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return "";
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException)
+                throw (RuntimeException) exception.getCause();
+            throw new CompletionException(exception.getCause());
+        }
+    }
+}
@@ -1,29 +1,110 @@
 package ivrit.interpreter.UserIO;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * The class that handles the IO in the Ivrit console GUI program.
+ * It never waits for the user: a program that waits for its inputs uses it through a BlockingIO.
+ * Prints are not written to the console one by one: they are buffered, and written together when the buffer grows too big,
+ * FLUSH_INTERVAL_MILLIS after the first buffered line, before asking for an input, and when flush is called (at the end of the program).
  */
-public class ConsoleIO implements IvritIO {
+public class ConsoleIO implements AsyncIvritIO {
+    // How long a printed line may wait before it is written:
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+    // The buffered output is written as soon as it is this long:
+    private static final int MAX_BATCH_CHARACTERS = 16 * 1024;
+    // Writes the buffered output when its time comes:
+    private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ivrit-console-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private UserInput userInput;
+    // The printed lines that were not written yet (each one ends with '\n'):
+    private final StringBuilder outputBuffer;
+    // true IFF a flush of the buffered output is already scheduled:
+    private boolean flushScheduled;
 
     public ConsoleIO(UserInput userInput) {
         this.userInput = userInput;
+        this.outputBuffer = new StringBuilder();
+        this.flushScheduled = false;
     }
 
     @Override
     public void print(String message) {
-        System.out.println(message);
+        print((CharSequence) message);
+    }
+
+    @Override
+    public synchronized void print(CharSequence message) {
+        this.outputBuffer.append(message).append('\n');
+        onPrinted();
+    }
+
+    @Override
+    public synchronized void print(IvritPrintable message) {
+        // The text is written straight into the buffer (if appending it fails, it is taken back):
+        int start = this.outputBuffer.length();
+        try {
+            message.appendTo(this.outputBuffer);
+        } catch (RuntimeException exception) {
+            this.outputBuffer.setLength(start);
+            throw exception;
+        }
+
+        this.outputBuffer.append('\n');
+        onPrinted();
+    }
+
+    /**
+     * Writes the buffered output if it grew too big, or makes sure it is written soon.
+     * Must be called while holding the lock of this object.
+     */
+    private void onPrinted() {
+        if (this.outputBuffer.length() >= MAX_BATCH_CHARACTERS) {
+            flush();
+        } else if (!this.flushScheduled) {
+            this.flushScheduled = true;
+            FLUSH_SCHEDULER.schedule(this::flush, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void printAll(List<String> messages) {
+        for (String message : messages)
+            print((CharSequence) message);
+    }
+
+    /**
+     * Writes all the buffered output to the console (with a single write).
+     */
+    @Override
+    public synchronized void flush() {
+        this.flushScheduled = false;
+        if (this.outputBuffer.length() == 0)
+            return;
+
+        System.out.print(this.outputBuffer);
+        System.out.flush();
+        this.outputBuffer.setLength(0);
     }
 
     @Override
-    public String getUserInput() {
-        this.userInput.waitForNewUserInput();
-        return this.userInput.getLastUserInput();
+    public CompletionStage<String> requestUserInput() {
+        // The user should see everything that was printed before the input is requested:
+        flush();
+        return this.userInput.requestNewUserInput();
     }
 
     @Override
-    public String getCode() {
-        // In a ConsoleIO, in order to get the code we receive as input a pth from the user which points to the source code.
-        return getUserInput();
+    public CompletionStage<String> requestCode() {
+        // In a ConsoleIO, in order to get the code we receive as input a path from the user which points to the source code.
+        return requestUserInput();
     }
 }
@@ -0,0 +1,83 @@
+package ivrit.interpreter.UserIO;
+
+import ivrit.interpreter.ExecutionGuard;
+
+/**
+ * An IO object that counts the output of a program before passing it on, so the program stops when it prints too much.
+ * The clock of the program is paused while it waits for an input.
+ */
+public class GuardedIO implements IvritIO {
+    // The IO object that actually prints and gets inputs:
+    private final IvritIO io;
+    // Counts the output of the program:
+    private final ExecutionGuard guard;
+
+    /**
+     * Constructor.
+     * @param io - The IO object that actually prints and gets inputs.
+     * @param guard - Counts the output of the program.
+     */
+    public GuardedIO(IvritIO io, ExecutionGuard guard) {
+        this.io = io;
+        this.guard = guard;
+    }
+
+    @Override
+    public void print(String message) {
+        this.guard.onOutput(message);
+        this.io.print(message);
+    }
+
+    @Override
+    public void print(CharSequence message) {
+        this.guard.onOutput(message);
+        this.io.print(message);
+    }
+
+    @Override
+    public void print(IvritPrintable message) {
+        // The text is counted as it is appended, and taken back if it goes over the limit (so it isn't printed):
+        this.io.print(builder -> {
+            int start = builder.length();
+            message.appendTo(builder);
+            try {
+                this.guard.onOutput(builder.length() - start);
+            } catch (RuntimeException exception) {
+                builder.setLength(start);
+                throw exception;
+            }
+        });
+    }
+
+    @Override
+    public void flush() {
+        this.io.flush();
+    }
+
+    @Override
+    public String getUserInput() {
+        // The time the user takes to answer isn't the time the program runs:
+        this.guard.pauseClock();
+        try {
+            return this.io.getUserInput();
+        } finally {
+            this.guard.resumeClock();
+        }
+    }
+
+    @Override
+    public String pollUserInput() {
+        // May also wait for the input (see IvritIO.pollUserInput):
+        this.guard.pauseClock();
+        try {
+            return this.io.pollUserInput();
+        } finally {
+            this.guard.resumeClock();
+        }
+    }
+
+    @Override
+    public String getCode() {
+        return this.io.getCode();
+    }
+}
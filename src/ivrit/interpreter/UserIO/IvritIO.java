@@ -10,11 +10,44 @@ public interface IvritIO {
      */
     public void print(String message);
 
+    /**
+     * Sends a message to the user, without making a string of it first (if this object can do so).
+     * @param message - The message to be sent.
+     */
+    public default void print(CharSequence message) {
+        print(message.toString());
+    }
+
+    /**
+     * Sends a message to the user, by appending its text straight into the output (if this object can do so).
+     * @param message - The message to be sent.
+     */
+    public default void print(IvritPrintable message) {
+        StringBuilder text = new StringBuilder();
+        message.appendTo(text);
+        print(text);
+    }
+
+    /**
+     * Sends the output that was printed and wasn't sent yet (if this object buffers its output).
+     */
+    public default void flush() {
+    }
+
     /**
      * @return an input string from the user.
      */
     public String getUserInput();
 
+    /**
+     * Gets an input from the user without waiting for it, so a program can wait for its input without holding a thread.
+     * By default this waits for the input, like getUserInput.
+     * @return an input string from the user, or null if there is no input yet (the user was asked for one).
+     */
+    public default String pollUserInput() {
+        return getUserInput();
+    }
+
     /**
      * @return a string that holds the source code (whether it be the actual source code or a path to it).
      */
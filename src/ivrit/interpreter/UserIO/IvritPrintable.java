@@ -0,0 +1,14 @@
+package ivrit.interpreter.UserIO;
+
+/**
+ * Something that can be printed by writing its text straight into the output of an IO object,
+ * so printing it doesn't create a string first.
+ */
+@FunctionalInterface
+public interface IvritPrintable {
+    /**
+     * Appends the text of this to the given builder.
+     * @param builder - The builder to append to.
+     */
+    public void appendTo(StringBuilder builder);
+}
@@ -0,0 +1,103 @@
+package ivrit.interpreter.UserIO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An IO object that passes everything on, and also records every printed message
+ * (until an input is requested, or until the recording is stopped, since such output is never replayed).
+ */
+public class RecordingIO implements IvritIO {
+    // The IO object that actually prints and gets inputs:
+    private final IvritIO io;
+    // The printed messages, in their order:
+    private final List<String> messages;
+    // true IFF an input was requested:
+    private boolean inputRequested;
+    // true IFF the printed messages are recorded:
+    private boolean recording;
+
+    /**
+     * Constructor.
+     * @param io - The IO object that actually prints and gets inputs.
+     */
+    public RecordingIO(IvritIO io) {
+        this.io = io;
+        this.messages = new ArrayList<>();
+        this.inputRequested = false;
+        this.recording = true;
+    }
+
+    @Override
+    public void print(String message) {
+        if (this.recording)
+            this.messages.add(message);
+        this.io.print(message);
+    }
+
+    @Override
+    public void print(CharSequence message) {
+        if (this.recording)
+            print(message.toString());
+        else
+            this.io.print(message);
+    }
+
+    @Override
+    public void print(IvritPrintable message) {
+        if (!this.recording) {
+            this.io.print(message);
+            return;
+        }
+
+        // A recorded message is kept as a string anyway:
+        StringBuilder text = new StringBuilder();
+        message.appendTo(text);
+        print(text.toString());
+    }
+
+    @Override
+    public void flush() {
+        this.io.flush();
+    }
+
+    @Override
+    public String getUserInput() {
+        this.inputRequested = true;
+        this.recording = false;
+        return this.io.getUserInput();
+    }
+
+    @Override
+    public String pollUserInput() {
+        this.inputRequested = true;
+        this.recording = false;
+        return this.io.pollUserInput();
+    }
+
+    /**
+     * Stops recording the printed messages (when it is known the output will never be replayed).
+     */
+    public void stopRecording() {
+        this.recording = false;
+    }
+
+    @Override
+    public String getCode() {
+        return this.io.getCode();
+    }
+
+    /**
+     * @return the printed messages, in their order.
+     */
+    public List<String> getMessages() {
+        return this.messages;
+    }
+
+    /**
+     * @return true IFF an input was requested.
+     */
+    public boolean isInputRequested() {
+        return this.inputRequested;
+    }
+}
@@ -1,19 +1,21 @@
 package ivrit.interpreter.UserIO;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The class that handles the input from the user.
+ * The program requests an input and gets a future, which the GUI completes when the user sends the input,
+ * so a program that waits for the input sleeps (without using the CPU) until it arrives, and wakes up as soon as it does.
  */
 public class UserInput {
-    //this is true IFF the user is currently allowed to send input:
-    private volatile boolean isUserInputAllowed;
     //The last input from the user (if there wasn't any input yet, it is null):
-    private String lastUserInput;
+    private volatile String lastUserInput;
+    //The input that was requested and wasn't received yet (null if there is no such request = the user can't send input now):
+    private CompletableFuture<String> requestedUserInput;
 
     public UserInput() {
-        this.isUserInputAllowed = false;
         this.lastUserInput = null;
+        this.requestedUserInput = null;
     }
 
     /**
@@ -25,48 +27,40 @@ public class UserInput {
     }
 
     /**
-     * Updates this object after receiving an input from the user
+     * Updates this object after receiving an input from the user, and hands the input over to the program that requested it.
      * @param newInput - The new last input of the user.
      * @throws UnsupportedOperationException when a new input was received from the user while this object was not expecting it.
      */
     public void newInputReceived(String newInput) {
-        if (this.isUserInputAllowed) {
+        CompletableFuture<String> requestedUserInput;
+        synchronized (this) {
+            if (this.requestedUserInput == null)
+                throw new UnsupportedOperationException("שגיאה: התקבל קלט משתמש ללא הכנה מוקדמת לכך.");
+
             this.lastUserInput = newInput;
-            this.isUserInputAllowed = false;
-        } else {
-            throw new UnsupportedOperationException("שגיאה: התקבל קלט משתמש ללא הכנה מוקדמת לכך.");
+            requestedUserInput = this.requestedUserInput;
+            this.requestedUserInput = null;
         }
-    }
 
-    /**
-     * @return true IFF the user can currently send input.
-     */
-    public boolean getIsUserInputAllowed() {
-        return this.isUserInputAllowed;
+        // Completed without holding the lock, since it wakes up the program:
+        requestedUserInput.complete(newInput);
     }
 
     /**
-     * Enables to user to send input.
+     * @return true IFF the user can currently send input.
      */
-    public void allowUserInput() {
-        this.isUserInputAllowed = true;
+    public synchronized boolean getIsUserInputAllowed() {
+        return this.requestedUserInput != null;
     }
 
     /**
-     * Does nothing until a new input is received from the user.
+     * Enables to user to send input, without waiting for it.
+     * @return a future that completes with the new input of the user.
      */
-    public void waitForNewUserInput() {
-        allowUserInput();
-
-        CountDownLatch latch = new CountDownLatch(1);
-        UserInputWorker worker = new UserInputWorker(this, latch);
-        worker.execute();
-
-        try {
-            latch.await();
-        } catch (InterruptedException exception) {
-            exception.printStackTrace();
-        }
+    public synchronized CompletableFuture<String> requestNewUserInput() {
+        if (this.requestedUserInput == null)
+            this.requestedUserInput = new CompletableFuture<>();
 
+        return this.requestedUserInput;
     }
 }
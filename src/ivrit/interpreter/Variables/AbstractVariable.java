@@ -45,14 +45,6 @@ public abstract class AbstractVariable<T> implements Variable {
 
     @Override
     public String toString() {
-        return getValue();
-    }
-
-    /**
-     * @return true IFF the given value is a valid value for at least one variable type.
-     */
-    public static boolean isLiteralValue(String value) {
-        return (BooleanVariable.isBooleanValue(value) || IntegerVariable.isIntegerValue(value)
-                || FloatVariable.isFloatValue(value) || StringVariable.isStringValue(value));
+        return getValue().toText();
     }
 }
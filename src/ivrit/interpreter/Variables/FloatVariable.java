@@ -3,12 +3,12 @@ package ivrit.interpreter.Variables;
 /**
  * A variable that contains a float value (a decimal number).
  */
-public class FloatVariable extends AbstractVariable<Float> implements NumericVariable {
+public class FloatVariable extends AbstractVariable<Value> {
     /**
      * Constructor.
      * @param value - The value of the variable.
      */
-    public FloatVariable(String value) {
+    public FloatVariable(Value value) {
         super();
         updateValue(value);
     }
@@ -18,128 +18,32 @@ public class FloatVariable extends AbstractVariable<Float> implements NumericVar
      * @param value - The value of the variable.
      * @param isConst - true IFF this variable is actually a const, meaning it cannot change it's value anymore.
      */
-    public FloatVariable(String value, boolean isConst) {
+    public FloatVariable(Value value, boolean isConst) {
         super(isConst);
         updateValue(value);
     }
 
     @Override
-    public String getValue() {
-        return Float.toString(this.value);
-    }
-
-    @Override
-    public void updateValue(String newValue) {
-        try {
-            this.value = Float.parseFloat(newValue);
-        } catch (NumberFormatException exception) {
-            throw new NumberFormatException("שגיאה: הערך " + newValue + " לא מתאים למשתנה מסוג עשרוני.");
-        }
+    public Value getValue() {
+        return this.value;
     }
 
     /**
-     * @param checkValue - The value to be checked.
-     * @return true IFF checkValue is a valid float value in Ivrit.
+     * Updates the value of the variable (an integer value is turned into a float).
      */
-    public static boolean isFloatValue(String checkValue) {
-        try {
-            Float.parseFloat(checkValue);
-            return true;
-        } catch (NumberFormatException exception) {
-            return false;
-        }
-    }
-
-    //NumericVariable methods:
-
-    @Override
-    public void add(String value) {
-        if (IntegerVariable.isIntegerValue(value)) {
-            this.value += Integer.parseInt(value);
-        } else if (FloatVariable.isFloatValue(value)) {
-            this.value += Float.parseFloat(value);
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן לחבר למשתנה מסוג עשרוני את הערך " + value);
-    }
-
-    @Override
-    public void substract(String value) {
-        if (IntegerVariable.isIntegerValue(value)) {
-            this.value -= Integer.parseInt(value);
-        } else if (FloatVariable.isFloatValue(value)) {
-            this.value -= Float.parseFloat(value);
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן לחסר ממשתנה מסוג עשרוני את הערך " + value);
-    }
-
     @Override
-    public void multiply(String value) {
-        if (IntegerVariable.isIntegerValue(value)) {
-            this.value *= Integer.parseInt(value);
-        } else if (FloatVariable.isFloatValue(value)) {
-            this.value *= Float.parseFloat(value);
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן להכפיל משתנה מסוג עשרוני בערך " + value);
-    }
-
-    @Override
-    public void divide(String value) {
-        if (IntegerVariable.isIntegerValue(value)) {
-            this.value /= Integer.parseInt(value);
-        } else if (FloatVariable.isFloatValue(value)) {
-            this.value /= Float.parseFloat(value);
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן לחלק משתנה מסוג עשרוני בערך " + value);
-    }
-
-    @Override
-    public void modulo(String value) {
-        if (IntegerVariable.isIntegerValue(value)) {
-            this.value %= Integer.parseInt(value);
-        } else if (FloatVariable.isFloatValue(value)) {
-            this.value %= Float.parseFloat(value);
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן לחשב שארית עבור משתנה מסוג עשרוני והערך " + value);
-    }
-
-    @Override
-    public BooleanVariable greaterThen(String value) {
-        String result = "שקר";
-
-        if (IntegerVariable.isIntegerValue(value)) {
-            if (this.value > Integer.parseInt(value))
-                result = "אמת";
-
-        } else if (FloatVariable.isFloatValue(value)) {
-            if (this.value > Float.parseFloat(value))
-                result = "אמת";
-
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן להשוות משתנה מסוג עשרוני לערך " + value);
-
-        return new BooleanVariable(result);
-    }
-
-    @Override
-    public BooleanVariable lessThen(String value) {
-        String result = "שקר";
-
-        if (IntegerVariable.isIntegerValue(value)) {
-            if (this.value < Integer.parseInt(value))
-                result = "אמת";
-
-        } else if (FloatVariable.isFloatValue(value)) {
-            if (this.value < Float.parseFloat(value))
-                result = "אמת";
-
-        } else
-            throw new ClassCastException("שגיאה: לא ניתן להשוות משתנה מסוג עשרוני לערך " + value);
-
-        return new BooleanVariable(result);
+    public void updateValue(Value newValue) {
+        if (newValue.getType() == Value.Type.FLOAT) {
+            this.value = newValue;
+        } else if (newValue.getType() == Value.Type.INTEGER) {
+            this.value = Value.ofFloat(newValue.getInteger());
+        } else {
+            throw new NumberFormatException("שגיאה: הערך " + newValue.toText() + " לא מתאים למשתנה מסוג עשרוני.");
+        }
     }
 
     @Override
-    public FloatVariable createNewVariableWithSameType(String value){
+    public FloatVariable createNewVariableWithSameType(Value value){
         FloatVariable item = new FloatVariable(value);
         return item;
     }
@@ -4,15 +4,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * A variable that contains a list of variables of a certain type.
+ * A variable that contains a list of values of a certain type.
  */
-public class ListVariable<T extends Variable> extends AbstractVariable<List<T>> {
+public class ListVariable<T extends Variable> extends AbstractVariable<List<Value>> {
     private T classVar; // we need to keep it in order to add new items of te correct type to the list.
     /**
      * Constructor.
      * @param value - The value of the variable.
      */
-    public ListVariable(String value, T classVar) {
+    public ListVariable(Value value, T classVar) {
         super();
         this.classVar = classVar;
         updateValue(value);
@@ -23,72 +23,44 @@ public class ListVariable<T extends Variable> extends AbstractVariable<List<T>>
      * @param value - The value of the variable.
      * @param isConst - true IFF this variable is actually a const, meaning it cannot change it's value anymore.
      */
-    public ListVariable(String value, boolean isConst, T classVar) {
+    public ListVariable(Value value, boolean isConst, T classVar) {
         super(isConst);
         this.classVar = classVar;
         updateValue(value);
     }
 
+    /**
+     * @return the value of the list. It is a read-only view of the list, so it should be copied before the list changes.
+     */
     @Override
-    public String getValue() {
-        String res = "";
-        for (int i = 0; i < this.value.size()-1; i++) {
-            res+= this.value.get(i).toString() + ", ";
-        }
-        res+= this.value.get(this.value.size()-1);
-        return "[" + res + "]";
+    public Value getValue() {
+        return Value.ofList(this.value);
     }
 
     @Override
-    public void updateValue(String newValue) {
+    public void updateValue(Value newValue) {
+        if (newValue.getType() != Value.Type.LIST)
+            throw new NumberFormatException("שגיאה: הערך " + newValue.toText() + " לא מתאים למשתנה שהוא רשימה כי הוא לא נראה כמו: [ביטויים שמופרדים בפסיקים].");
+
         try {
-            if (!newValue.startsWith("[") || !newValue.endsWith("]"))
-                throw new NumberFormatException("שגיאה: הערך " + newValue + " לא מתאים למשתנה שהוא רשימה כי הוא לא נראה כמו: [ביטויים שמופרדים בפסיקים].");
-
-            newValue = newValue.substring(1, newValue.length()-1).trim(); //remove the brackets of the start and end.
-            this.value = new ArrayList<T>();
-            
-            if (this.classVar instanceof StringVariable) { // we need to split strings more carefully...
-                int start = 0;
-                int i = 1;
-                while (i < newValue.length()) {
-                    if (newValue.charAt(i) == '\"') {
-                        @SuppressWarnings("unchecked") // createNewVariableWithSameType on an object of type T, returns an object of type T!
-                        T item = (T) classVar.createNewVariableWithSameType(newValue.substring(start, i + 1));
-                        this.value.add(item);
-
-                        i++;
-                        while (i < newValue.length() && (newValue.charAt(i) == ' ' || newValue.charAt(i) == ','))
-                            i++;
-
-                        start = i;
-                        i++;
-                    } else {
-                        i++;
-                    }
-                }
-
-            } else {
-                String[] values = newValue.split(",");
-                for (String value : values) {
-                    @SuppressWarnings("unchecked") // createNewVariableWithSameType on an object of type T, returns an object of type T!
-                    T item = (T) this.classVar.createNewVariableWithSameType(value.trim());
-                    this.value.add(item);
-                }
-            }
+            List<Value> items = new ArrayList<>(newValue.getList().size());
+            for (Value item : newValue.getList())
+                items.add(toItem(item));
+
+            this.value = items;
         } catch (NumberFormatException exception) {
-            throw new NumberFormatException("שגיאה: הערך " + newValue + " לא מתאים למשתנה שהוא רשימה.");
+            throw new NumberFormatException("שגיאה: הערך " + newValue.toText() + " לא מתאים למשתנה שהוא רשימה.");
         }
     }
 
-    public T getValueAtIndex(int index) {
+    public Value getValueAtIndex(int index) {
         if (index > this.value.size())
             throw new IndexOutOfBoundsException("שגיאה: המיקום " + index + " הוא גדול מידי עבור רשימה בגודל " + this.value.size() + ".");
 
         return this.value.get(index-1); // since in Ivrit we start indexing lists from 1.
     }
 
-    public void updateValueAtIndex(int index, String newValue) {
+    public void updateValueAtIndex(int index, Value newValue) {
         if (index < 1) {
             throw new IndexOutOfBoundsException("שגיאה: המיקום " + index + " הוא קטן מידי עבור רשימה (צריך לפחות 1).");
         }
@@ -97,10 +69,10 @@ public class ListVariable<T extends Variable> extends AbstractVariable<List<T>>
             throw new IndexOutOfBoundsException("שגיאה: המיקום " + index + " הוא גדול מידי עבור רשימה בגודל " + this.value.size() + ".");
         }
 
-        this.value.get(index-1).updateValue(newValue);
+        this.value.set(index-1, toItem(newValue));
     }
 
-    public void addValueAtIndex(String stringIndex, String value) {
+    public void addValueAtIndex(String stringIndex, Value value) {
         int index = 0;
         if (stringIndex.equals("end")) {
             index = this.value.size()+1;
@@ -116,9 +88,7 @@ public class ListVariable<T extends Variable> extends AbstractVariable<List<T>>
             throw new IndexOutOfBoundsException("שגיאה: המיקום " + index + " הוא גדול מידי עבור רשימה בגודל " + this.value.size() + ".");
         }
 
-        @SuppressWarnings("unchecked") // createNewVariableWithSameType on an object of type T, returns an object of type T!
-        T item = (T) classVar.createNewVariableWithSameType(value.trim());
-        this.value.add(index-1, item);
+        this.value.add(index-1, toItem(value));
     }
 
     public void removeValueAtIndex(String stringIndex) {
@@ -146,16 +116,17 @@ public class ListVariable<T extends Variable> extends AbstractVariable<List<T>>
         return true;
     }
 
-    /**
-     * @param checkValue - The value to be checked.
-     * @return true IFF checkValue is a valid float value in Ivrit.
-     */
-    public static boolean isListValue(String checkValue) {
-        return checkValue.startsWith("[") && checkValue.endsWith("]"); //we might need to swap the order....
-    }
-
     @Override
-    public Variable createNewVariableWithSameType(String value){
+    public Variable createNewVariableWithSameType(Value value){
         return null;
     }
+
+    /**
+     * @param item - A value we want to store in the list.
+     * @return the given value, converted to the type of the items of the list (for example, 1 becomes 1.0 in a list of floats).
+     * @throws NumberFormatException when the value doesn't match the type of the items of the list.
+     */
+    private Value toItem(Value item) {
+        return this.classVar.createNewVariableWithSameType(item).getValue();
+    }
 }
@@ -1,178 +1,129 @@
 package ivrit.interpreter.Variables;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import ivrit.interpreter.UserIO.IvritIO;
 
 /**
- * Stores the variables the user created and allows for fast lookup and updates for them. 
+ * Stores the variables the user created in a single scope, as a frame of slots and the variables stored in them.
+ * Looking up variables is done by the VariablesController, this only remembers which variables belong to the scope
+ * (so they can be removed when the scope ends, and printed).
  */
 public class Scope {
-    //A map that connects between the name of the variable to its value:
-    private Map<String, Variable> dataMap;
+    // The initial number of variables a scope has room for:
+    private static final int INITIAL_CAPACITY = 4;
+
+    // The slots of the variables stored in this scope (only the first count are used):
+    private int[] slots;
+    // The variables stored in this scope (the variable at index i is stored in slot slots[i]):
+    private Variable[] variables;
+    // The number of variables stored in this scope:
+    private int count;
 
     /**
      * Constructor.
      */
     public Scope() {
-        this.dataMap = new HashMap<>();
-    }
-
-    /**
-     * @param name - The name of the variable to check.
-     * @return true IFF there is already a variable with the given name stored.
-     */
-    public boolean isVariable(String name) {
-        return this.dataMap.containsKey(name);
-    }
-
-    /**
-     * @param name - The name of a variable we want to check whther it is a list or not.
-     * @return true IFF there is a variable with the name name that is a list.
-     */
-    public boolean isList(String name) {
-        return this.dataMap.get(name).isList();
+        this.slots = new int[INITIAL_CAPACITY];
+        this.variables = new Variable[INITIAL_CAPACITY];
+        this.count = 0;
     }
 
     /**
-     * Creates a new variable.
-     * @param variableName - The name of the new variable.
-     * @param variableType - The type of the new variable.
-     * @param variableValue - the value of the new variable.
+     * @param slot - The slot of the variable to check.
+     * @return true IFF there is already a variable with the given slot stored.
      */
-    public void createVariable(String variableName, String variableType, String variableValue, boolean isList,
-            boolean isConstant) {
-        Variable variable;
-        if (this.dataMap.containsKey(variableValue)) {
-            // if the value is the name of an existing variable, we first dereference it
-            variableValue = this.dataMap.get(variableValue).getValue();
-        }
-
-        variable = VariablesFactory.createVariable(variableType, variableValue, isList, isConstant);
-
-        this.dataMap.put(variableName, variable);
+    public boolean isVariable(int slot) {
+        return indexOf(slot) != -1;
     }
 
     /**
-     * Deletes the given variable from the program.
-     * @param variableName - The name of the variable to delete.
-     * @throws NullPointerException when variableName isn't the name of a variable. 
+     * Stores a variable in this scope (replacing the variable in the same slot, if there is one).
+     * @param slot - The slot of the variable.
+     * @param variable - The variable.
      */
-    public void deleteVariable(String variableName) {
-        if (!this.dataMap.containsKey(variableName))
-            throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'.");
-
-        this.dataMap.remove(variableName);
-    }
-
-    /**
-     * Updates the value of an existing variable.
-     * @param variableName - The name of the variable to be updated.
-     * @param newValue - The new value.
-     * @throws NullPointerException when variableName isn't the name of a variable. 
-     * @throws NumberFormatException when trying to update the value of a constant.
-     */
-    public void updateVariable(String variableName, String newValue) {
-        Variable variable = this.dataMap.get(variableName);
-        if (variable == null) {
-            throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'.");
-        }
-
-        if (variable.isConstant()) {
-            throw new NumberFormatException("שגיאה: לא ניתן לשנות את הערך של קבוע '" + variableName + "'.");
+    public void putVariable(int slot, Variable variable) {
+        int index = indexOf(slot);
+        if (index != -1) {
+            this.variables[index] = variable;
+            return;
         }
 
-        if (this.dataMap.containsKey(newValue)) {
-            //If we are assigning a variable to this (we only copy by value):
-            variable.updateValue(this.dataMap.get(newValue).getValue());
-        } else {
-            //We are updating from the value:
-            variable.updateValue(newValue);
+        if (this.count == this.slots.length) {
+            this.slots = Arrays.copyOf(this.slots, this.count * 2);
+            this.variables = Arrays.copyOf(this.variables, this.count * 2);
         }
-    }
-
-    /**
-     * Updates an item from a list at a specific index.
-     * @param variableName - The name of the list variable.
-     * @param index - The index we want to update. We start counting from 1 (so index 1 is the first index, unlike most languages).
-     * @param newValue - The new value to use in that index of the list.
-     * @throws NullPointerException if variableName is not a actually the name of a variable that is a list.
-     */
-    public void updateListVariable(String variableName, int index, String newValue) {
-        Variable variable = dataMap.get(variableName);
-        if (variable == null)
-            throw new NullPointerException("שגיאה: לא קיים משתנה בשם '" + variableName + "'.");
 
-        if (!variable.isList())
-            throw new NullPointerException("שגיאה: אי אפשר לעדכן איבר במשתנה '" + variableName + "' שאינו רשימה.");
-
-        ListVariable<?> lst = (ListVariable<?>) variable;
-        lst.updateValueAtIndex(index, newValue);
+        this.slots[this.count] = slot;
+        this.variables[this.count] = variable;
+        this.count++;
     }
 
     /**
-     * Adds a new item to the list at a specific index (the first index is always 1).
-     * @param variableName - The name of the list variable.
-     * @param index - The index we want the new item to be. "1" means we want it as the first element in the result. "end" means we want it to be the last.
-     * @param value - The value to be inserted.
-     * @throws NullPointerException if variableName is not a actually the name of a variable that is a list.
+     * Removes the variable in the given slot from this scope.
+     * @param slot - The slot of the variable to remove.
      */
-    public void addToListVariable(String variableName, String index, String value) {
-        Variable variable = dataMap.get(variableName);
-        if (variable == null)
-            throw new NullPointerException("שגיאה: לא קיים משתנה בשם '" + variableName + "'.");
-
-        if (!variable.isList())
-            throw new NullPointerException("שגיאה: אי אפשר להוסיף איבר למשתנה '" + variableName + "' שאינו רשימה.");
-
-        ListVariable<?> lst = (ListVariable<?>) variable;
-        lst.addValueAtIndex(index, value);
+    public void removeVariable(int slot) {
+        int index = indexOf(slot);
+        if (index == -1)
+            return;
+
+        // The order of the variables doesn't matter, so the last one can take the place of the removed one:
+        this.count--;
+        this.slots[index] = this.slots[this.count];
+        this.variables[index] = this.variables[this.count];
+        this.variables[this.count] = null;
     }
 
     /**
-     * Removes an item from the list at a specific index (the first index is always 1).
-     * @param variableName - The name of the list variable.
-     * @param index - The index we want the new item to be. "1" means we want it as the first element in the result. "end" means we want it to be the last.
+     * @return the number of variables stored in this scope.
      */
-    public void removeFromListVariable(String variableName, String index) {
-        Variable variable = dataMap.get(variableName);
-        if (variable == null)
-            throw new NullPointerException("שגיאה: לא קיים משתנה בשם '" + variableName + "'.");
-
-        if (!variable.isList())
-            throw new NullPointerException("שגיאה: אי אפשר להסיר איבר ממשתנה '" + variableName + "' שאינו רשימה.");
-
-        ListVariable<?> lst = (ListVariable<?>) variable;
-        lst.removeValueAtIndex(index);
+    public int getVariablesCount() {
+        return this.count;
     }
 
     /**
-     * @param variableName - The name of the variable we wan the value of.
-     * @return the value of the variable with the given name.
-     * @throws NullPointerException when variableName isn't the name of a variable. 
+     * @param index - The index of a variable in this scope (between 0 and the number of variables).
+     * @return the slot of the variable at the given index.
      */
-    public String getVariableValue(String variableName) {
-        Variable variable = this.dataMap.get(variableName);
-        if (variable == null)
-            throw new NullPointerException("שגיאה: לא קיים משתנה בשם '" + variableName + "'.");
-
-        return variable.getValue();
+    public int getSlot(int index) {
+        return this.slots[index];
     }
 
     /**
      * Clears all the variables created.
      */
     public void clear() {
-        this.dataMap.clear();
+        Arrays.fill(this.variables, 0, this.count, null);
+        this.count = 0;
     }
 
     /**
      * Prints all the variables in the format (variableName : variableValue).
+     * @param io - Where to print the variables.
+     * @param symbols - Contains the names of the slots.
      */
-    public void printVariables(IvritIO io) {
-        for (Map.Entry<String, Variable> entry : this.dataMap.entrySet()) {
+    public void printVariables(IvritIO io, SymbolTable symbols) {
+        Map<String, Variable> dataMap = new HashMap<>();
+        for (int i = 0; i < this.count; i++)
+            dataMap.put(symbols.nameOf(this.slots[i]), this.variables[i]);
+
+        for (Map.Entry<String, Variable> entry : dataMap.entrySet()) {
             io.print("(" + entry.getKey() + " : " + entry.getValue().toString() + ")");
         }
     }
+
+    /**
+     * @return the index of the given slot in this scope, or -1 if there is no variable in that slot.
+     */
+    private int indexOf(int slot) {
+        for (int i = 0; i < this.count; i++) {
+            if (this.slots[i] == slot)
+                return i;
+        }
+
+        return -1;
+    }
 }
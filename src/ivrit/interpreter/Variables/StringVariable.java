@@ -3,12 +3,12 @@ package ivrit.interpreter.Variables;
 /**
  * A variable that contains a string value.
  */
-public class StringVariable extends AbstractVariable<String> {
+public class StringVariable extends AbstractVariable<Value> {
     /**
      * Constructor.
      * @param value - The value of the variable.
      */
-    public StringVariable(String value) {
+    public StringVariable(Value value) {
         super();
         updateValue(value);
     }
@@ -18,52 +18,28 @@ public class StringVariable extends AbstractVariable<String> {
      * @param value - The value of the variable.
      * @param isConst - true IFF this variable is actually a const, meaning it cannot change it's value anymore.
      */
-    public StringVariable(String value, boolean isConst) {
+    public StringVariable(Value value, boolean isConst) {
         super(isConst);
         updateValue(value);
     }
 
     @Override
-    public String getValue() {
+    public Value getValue() {
         return this.value;
     }
 
     @Override
-    public void updateValue(String newValue) {
-        if (newValue.charAt(0) == '"' && newValue.charAt(newValue.length() - 1) == '"') {
+    public void updateValue(Value newValue) {
+        if (newValue.getType() == Value.Type.STRING) {
             this.value = newValue;
         } else {
             throw new NumberFormatException(
-                    "שגיאה: הערך " + newValue + " לא מתאים למשתנה מסוג משפט. ודאו שאכן השתמשתם במרכאות מסביב לקטע הרצוי.");
+                    "שגיאה: הערך " + newValue.toText() + " לא מתאים למשתנה מסוג משפט. ודאו שאכן השתמשתם במרכאות מסביב לקטע הרצוי.");
         }
     }
 
     @Override
-    public String toString() {
-        return this.value;
-        //return this.value.substring(1, this.value.length() - 1);
-    }
-
-    @Override
-    public Variable createNewVariableWithSameType(String value){
+    public Variable createNewVariableWithSameType(Value value){
         return new StringVariable(value);
     }
-
-    //Static methods:
-
-    /**
-    * @param checkValue - The value to be checked.
-    * @return true IFF checkValue is a valid string value in Ivrit.
-    */
-    public static boolean isStringValue(String checkValue) {
-        return (checkValue.charAt(0) == '"' && checkValue.charAt(checkValue.length() - 1) == '"');
-    }
-
-    /**
-    * @param str - The string to check.
-    * @return true IFF the given string contains an Ivrit string in it (either by value: "משהו משהו", or by the name of a StringVariable).
-    */
-    public static boolean containsLiteralStrings(String str) {
-        return (str.indexOf("\"") != str.lastIndexOf("\""));
-    }
 }
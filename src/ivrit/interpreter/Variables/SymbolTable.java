@@ -0,0 +1,105 @@
+package ivrit.interpreter.Variables;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every variable name of the program a number (its slot), so variables can be found by their slot
+ * instead of by looking up their name while interpreting.
+ * Names are resolved while compiling, and then the table is frozen, so the compiled program can be shared by many runs.
+ * Every run adds the names it only sees while interpreting (like in an input) to its own table, on top of the frozen one.
+ */
+public class SymbolTable {
+    // A mapping between every name added to this table to its slot:
+    private Map<String, Integer> slots;
+    // The names added to this table (the name at index i is the name of slot baseSize + i):
+    private List<String> names;
+    // The frozen table this table adds names to (null if it doesn't have one):
+    private final SymbolTable base;
+    // The number of slots in the base table (the slots of this table start after them):
+    private final int baseSize;
+    // true IFF names can't be added to this table anymore:
+    private boolean frozen;
+
+    /**
+     * Constructor.
+     */
+    public SymbolTable() {
+        this(null);
+    }
+
+    /**
+     * Constructor of a table that adds names to a frozen table, without changing it.
+     * The names of the frozen table keep their slots, and new names get the slots after them.
+     * @param base - The frozen table (null for an empty table).
+     * @throws IllegalArgumentException when the given table isn't frozen.
+     */
+    public SymbolTable(SymbolTable base) {
+        if (base != null && !base.frozen)
+            throw new IllegalArgumentException("Names can only be added on top of a frozen symbol table.");
+
+        this.slots = new HashMap<>();
+        this.names = new ArrayList<>();
+        this.base = base;
+        this.baseSize = base == null ? 0 : base.size();
+        this.frozen = false;
+    }
+
+    /**
+     * Stops adding names to this table, so it can be shared (see SymbolTable(SymbolTable)).
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * @param name - The name of a variable.
+     * @return the slot of the given name (a new slot is given to a name that wasn't seen before).
+     * @throws IllegalStateException when the name wasn't seen before and the table is frozen.
+     */
+    public int slotOf(String name) {
+        int slot = find(name);
+        if (slot != -1)
+            return slot;
+
+        if (this.frozen)
+            throw new IllegalStateException("The symbol table is frozen, so the name '" + name + "' can't get a slot.");
+
+        slot = size();
+        this.slots.put(name, slot);
+        this.names.add(name);
+        return slot;
+    }
+
+    /**
+     * @param name - The name of a variable.
+     * @return the slot of the given name, or -1 if it wasn't seen before.
+     */
+    private int find(String name) {
+        Integer slot = this.slots.get(name);
+        if (slot != null)
+            return slot;
+
+        return this.base == null ? -1 : this.base.find(name);
+    }
+
+    /**
+     * @param slot - The slot of a variable.
+     * @return the name that has the given slot.
+     */
+    public String nameOf(int slot) {
+        if (slot < this.baseSize)
+            return this.base.nameOf(slot);
+
+        return this.names.get(slot - this.baseSize);
+    }
+
+    /**
+     * @return the number of slots given so far.
+     */
+    public int size() {
+        return this.baseSize + this.names.size();
+    }
+}
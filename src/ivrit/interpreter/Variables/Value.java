@@ -0,0 +1,359 @@
+package ivrit.interpreter.Variables;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ivrit.interpreter.UserIO.IvritPrintable;
+
+/**
+ * An immutable value of one of the Ivrit types, which can be computed on without turning it back and forth into a string.
+ * It is printed by appending its text straight into the output (see IvritPrintable).
+ */
+public final class Value implements IvritPrintable {
+    /**
+     * The types an Ivrit value can have.
+     */
+    public enum Type {
+        INTEGER,
+        FLOAT,
+        BOOLEAN,
+        STRING,
+        LIST
+    }
+
+    // The textual representations of the boolean values:
+    public static final String TRUE_TEXT = "אמת";
+    public static final String FALSE_TEXT = "שקר";
+
+    // The only two boolean values:
+    public static final Value TRUE = new Value(Type.BOOLEAN, 0, 0, true, null, null);
+    public static final Value FALSE = new Value(Type.BOOLEAN, 0, 0, false, null, null);
+
+    // Small integers are used all the time (counters, indexes...), so we keep them instead of creating new ones:
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final Value[] INTEGERS_CACHE = new Value[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < INTEGERS_CACHE.length; i++)
+            INTEGERS_CACHE[i] = new Value(Type.INTEGER, CACHE_LOW + i, 0, false, null, null);
+    }
+
+    private final Type type;
+    private final int intValue;
+    private final float floatValue;
+    private final boolean booleanValue;
+    // The content of a string value (without the quotation marks around it):
+    private final String stringValue;
+    // The items of a list value:
+    private final List<Value> listValue;
+
+    /**
+     * Constructor.
+     */
+    private Value(Type type, int intValue, float floatValue, boolean booleanValue, String stringValue, List<Value> listValue) {
+        this.type = type;
+        this.intValue = intValue;
+        this.floatValue = floatValue;
+        this.booleanValue = booleanValue;
+        this.stringValue = stringValue;
+        this.listValue = listValue;
+    }
+
+    /**
+     * @return an integer value.
+     */
+    public static Value ofInteger(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH)
+            return INTEGERS_CACHE[value - CACHE_LOW];
+
+        return new Value(Type.INTEGER, value, 0, false, null, null);
+    }
+
+    /**
+     * @return a float value.
+     */
+    public static Value ofFloat(float value) {
+        return new Value(Type.FLOAT, 0, value, false, null, null);
+    }
+
+    /**
+     * @return a boolean value.
+     */
+    public static Value ofBoolean(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * @param value - The content of the string (without quotation marks).
+     * @return a string value.
+     */
+    public static Value ofString(String value) {
+        return new Value(Type.STRING, 0, 0, false, value, null);
+    }
+
+    /**
+     * @param items - The items of the list, in their order.
+     * @return a list value.
+     */
+    public static Value ofList(List<Value> items) {
+        return new Value(Type.LIST, 0, 0, false, null, Collections.unmodifiableList(items));
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public int getInteger() {
+        return this.intValue;
+    }
+
+    public float getFloat() {
+        return this.floatValue;
+    }
+
+    public boolean getBoolean() {
+        return this.booleanValue;
+    }
+
+    /**
+     * @return the content of this string value (without quotation marks).
+     */
+    public String getString() {
+        return this.stringValue;
+    }
+
+    public List<Value> getList() {
+        return this.listValue;
+    }
+
+    /**
+     * @return true IFF this is a numeric value (an integer or a float).
+     */
+    public boolean isNumeric() {
+        return this.type == Type.INTEGER || this.type == Type.FLOAT;
+    }
+
+    /**
+     * @return true IFF this is the boolean value true.
+     */
+    public boolean isTrue() {
+        return this == TRUE;
+    }
+
+    /**
+     * @return true IFF this is the boolean value false.
+     */
+    public boolean isFalse() {
+        return this == FALSE;
+    }
+
+    /**
+     * @return the text that represents this value in Ivrit (strings are surrounded by quotation marks).
+     */
+    public String toText() {
+        switch (this.type) {
+            case INTEGER:
+                return Integer.toString(this.intValue);
+            case FLOAT:
+                return Float.toString(this.floatValue);
+            case BOOLEAN:
+                return this.booleanValue ? TRUE_TEXT : FALSE_TEXT;
+            case STRING:
+                return '"' + this.stringValue + '"';
+            default:
+                StringBuilder result = new StringBuilder();
+                appendTo(result);
+                return result.toString();
+        }
+    }
+
+    /**
+     * Appends the text that represents this value in Ivrit to the given builder.
+     */
+    @Override
+    public void appendTo(StringBuilder builder) {
+        switch (this.type) {
+            case INTEGER:
+                builder.append(this.intValue);
+                break;
+            case FLOAT:
+                builder.append(this.floatValue);
+                break;
+            case BOOLEAN:
+                builder.append(this.booleanValue ? TRUE_TEXT : FALSE_TEXT);
+                break;
+            case STRING:
+                builder.append('"').append(this.stringValue).append('"');
+                break;
+            default:
+                builder.append('[');
+                for (int i = 0; i < this.listValue.size(); i++) {
+                    if (i > 0)
+                        builder.append(", ");
+                    this.listValue.get(i).appendTo(builder);
+                }
+                builder.append(']');
+        }
+    }
+
+    /**
+     * @return the text this value adds when it is concatenated to a string (strings add their content without quotation marks).
+     */
+    public String toConcatenationText() {
+        if (this.type == Type.STRING)
+            return this.stringValue;
+
+        return toText();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+
+        if (!(other instanceof Value))
+            return false;
+
+        Value otherValue = (Value) other;
+        if (this.type != otherValue.type)
+            return false;
+
+        switch (this.type) {
+            case INTEGER:
+                return this.intValue == otherValue.intValue;
+            case FLOAT:
+                return Float.floatToIntBits(this.floatValue) == Float.floatToIntBits(otherValue.floatValue);
+            case BOOLEAN:
+                return this.booleanValue == otherValue.booleanValue;
+            case STRING:
+                return this.stringValue.equals(otherValue.stringValue);
+            default:
+                return this.listValue.equals(otherValue.listValue);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        switch (this.type) {
+            case INTEGER:
+                return this.intValue;
+            case FLOAT:
+                return Float.floatToIntBits(this.floatValue);
+            case BOOLEAN:
+                return this.booleanValue ? 1 : 0;
+            case STRING:
+                return this.stringValue.hashCode();
+            default:
+                return this.listValue.hashCode();
+        }
+    }
+
+    //Static methods:
+
+    /**
+     * @param text - The text that represents a value in Ivrit (strings should be surrounded by quotation marks).
+     * @return the value the given text represents.
+     * @throws UncheckedIOException when the text doesn't represent any Ivrit value.
+     */
+    public static Value fromText(String text) {
+        Value value = fromLiteralText(text);
+        if (value == null)
+            throw new UncheckedIOException("לא ניתן להבין את משמעות המילה " + text, new IOException());
+
+        return value;
+    }
+
+    /**
+     * @param text - The text that might represent a value in Ivrit (strings should be surrounded by quotation marks).
+     * @return the value the given text represents, or null if it doesn't represent any Ivrit value.
+     */
+    public static Value fromLiteralText(String text) {
+        if (text.isEmpty())
+            return null;
+
+        char firstChar = text.charAt(0);
+        if (firstChar == '"' && text.charAt(text.length() - 1) == '"')
+            return ofString(text.length() == 1 ? "" : text.substring(1, text.length() - 1));
+
+        if (firstChar == '[' && text.charAt(text.length() - 1) == ']')
+            return listFromText(text);
+
+        if (text.equals(TRUE_TEXT))
+            return TRUE;
+
+        if (text.equals(FALSE_TEXT))
+            return FALSE;
+
+        // Most of the texts we get are names of variables, so we don't try to parse texts that can't be numbers:
+        if (looksLikeNumber(text, false)) {
+            try {
+                return ofInteger(Integer.parseInt(text));
+            } catch (NumberFormatException exception) {
+                // Too large for an integer, it is still a valid float.
+            }
+        }
+
+        if (looksLikeNumber(text, true))
+            return ofFloat(Float.parseFloat(text));
+
+        return null;
+    }
+
+    /**
+     * @param allowPoint - Whether the number may have a decimal point.
+     * @return true IFF the given text is made of an optional sign and then digits,
+     *         with at most one decimal point between them (if allowed).
+     */
+    private static boolean looksLikeNumber(String text, boolean allowPoint) {
+        int start = (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (int i = start; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '.' && allowPoint && !seenPoint)
+                seenPoint = true;
+            else if (ch >= '0' && ch <= '9')
+                seenDigit = true;
+            else
+                return false;
+        }
+
+        return seenDigit;
+    }
+
+    /**
+     * @param text - A text of the form [item, item, ...].
+     * @return the list value the given text represents.
+     */
+    private static Value listFromText(String text) {
+        String content = text.substring(1, text.length() - 1).trim();
+        List<Value> items = new ArrayList<>();
+        if (content.isEmpty())
+            return ofList(items);
+
+        // Split by the commas that are not inside quotation marks:
+        boolean inQuotes = false;
+        int start = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char ch = content.charAt(i);
+            if (ch == '"') {
+                inQuotes = !inQuotes;
+            } else if (ch == ',' && !inQuotes) {
+                items.add(fromText(content.substring(start, i).trim()));
+                start = i + 1;
+            }
+        }
+        items.add(fromText(content.substring(start).trim()));
+
+        return ofList(items);
+    }
+}
@@ -7,14 +7,14 @@ public interface Variable {
     /**
      * @return the value of the variable.
      */
-    public String getValue();
+    public Value getValue();
     
     /**
      * Updates the value of the variable with a new value.
      * @param newValue - The new value of the variable.
-     * @throws NumberFormatException when newValue can't be casted directly to the correct type.
+     * @throws NumberFormatException when newValue doesn't match the type of the variable.
      */
-    public void updateValue(String newValue);
+    public void updateValue(Value newValue);
 
     /**
      * Returns a string containing the type of the variable.
@@ -34,5 +34,5 @@ public interface Variable {
     /**
      * Returns a new Variable object of the same the as the object this was called in.
      */
-    public Variable createNewVariableWithSameType(String value);
+    public Variable createNewVariableWithSameType(Value value);
 }
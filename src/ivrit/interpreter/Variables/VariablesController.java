@@ -1,6 +1,8 @@
 package ivrit.interpreter.Variables;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,189 +12,195 @@ import ivrit.interpreter.UserIO.IvritIO;
  * Stores the scopes of the program, which contain the mappings between the variables to their values.
  * This allows us declare the same variable twice in different scopes, and treat them as two different variables.
  * Very useful in functions (for example, in recursions).
+ * Every variable name has a slot (given by the SymbolTable while compiling), and every slot has a stack of its bindings
+ * (the most recent one on top), so finding a variable is just indexing an array.
  */
 public class VariablesController {
+    /**
+     * A variable that is bound to a name in a certain scope, which hides the older bindings of the same name.
+     */
+    private static class Binding {
+        // The variable the name is bound to:
+        private Variable variable;
+        // The index of the scope this binding was created in:
+        private final int scopeIndex;
+        // The binding of the same name this binding hides (null if there isn't one):
+        private final Binding hidden;
+
+        /**
+         * Constructor.
+         * @param variable - The variable the name is bound to.
+         * @param scopeIndex - The index of the scope this binding was created in.
+         * @param hidden - The binding of the same name this binding hides (null if there isn't one).
+         */
+        private Binding(Variable variable, int scopeIndex, Binding hidden) {
+            this.variable = variable;
+            this.scopeIndex = scopeIndex;
+            this.hidden = hidden;
+        }
+    }
+
     //A list that contains all the scopes of the program.
     private List<Scope> scopes;
+    // The most recent binding of every slot (null for a slot that has no variable):
+    private Binding[] bindings;
+    // Gives every variable name its slot:
+    private SymbolTable symbols;
     // A mapping between function names and the data about their parameters.
     Map<String,List<ArgumentData>> functionDefinitions;
+    // A mapping between function names and the slots of their parameters (in the order of the parameters):
+    private Map<String, int[]> parameterSlots;
 
     /**
      * Constructor.
+     * @param functionDefinitions - A mapping between function names and the data about their parameters.
+     * @param symbols - Gives every variable name its slot.
      */
-    public VariablesController(Map<String,List<ArgumentData>> functionDefinitions) {
-        this.scopes = new LinkedList<>();
+    public VariablesController(Map<String,List<ArgumentData>> functionDefinitions, SymbolTable symbols) {
+        this.scopes = new ArrayList<>();
         this.scopes.add(new Scope()); // The global scope.
+        this.symbols = symbols;
+        this.bindings = new Binding[Math.max(symbols.size(), 16)];
         this.functionDefinitions = functionDefinitions;
+
+        this.parameterSlots = new HashMap<>();
+        for (Map.Entry<String, List<ArgumentData>> entry : functionDefinitions.entrySet()) {
+            int[] slots = new int[entry.getValue().size()];
+            for (int i = 0; i < slots.length; i++)
+                slots[i] = symbols.slotOf(entry.getValue().get(i).getName());
+
+            this.parameterSlots.put(entry.getKey(), slots);
+        }
     }
 
     /**
-     * @param name - The name of the variable to check.
-     * @return true IFF there is already a variable with the given name stored in some scope.
+     * @param slot - The slot of the variable to check.
+     * @return true IFF there is already a variable with the given slot stored in some scope.
      */
-    public boolean isVariable(String name) {
-        for (Scope scope : this.scopes) {
-            if (scope.isVariable(name))
-                return true;
-        }
-
-        return false;
+    public boolean isVariable(int slot) {
+        return getBinding(slot) != null;
     }
 
     /**
-     * @param name - The name of a variable we want to check whether it is a list or not.
-     * @return true IFF there is a variable with the name name that is a list, and also it is the most recent variable with that name 
+     * @param slot - The slot of a variable we want to check whether it is a list or not.
+     * @return true IFF there is a variable in the given slot that is a list, and also it is the most recent variable with that name 
      * (meaning it isn't hidden by a more recent non-list variable with the same name).
      */
-    public boolean isList(String name) {
-        for (int i = this.scopes.size()-1; i>=0; i--) {
-            Scope scope = this.scopes.get(i);
-            if (scope.isVariable(name)) {
-                return scope.isList(name);
-            }
-        }
-
-        return false;
+    public boolean isList(int slot) {
+        Binding binding = getBinding(slot);
+        return binding != null && binding.variable.isList();
     }
 
     /**
      * Creates a new variable in the most recent scope.
-     * @param variableName - The name of the new variable.
+     * @param slot - The slot of the new variable.
      * @param variableType - The type of the new variable.
      * @param variableValue - the value of the new variable.
      */
-    public void createVariable(String variableName, String variableType, String variableValue, boolean isList, boolean isConstant) {
-        this.scopes.get(this.scopes.size()-1).createVariable(variableName, variableType, variableValue, isList, isConstant);
+    public void createVariable(int slot, String variableType, Value variableValue, boolean isList, boolean isConstant) {
+        bind(slot, VariablesFactory.createVariable(variableType, variableValue, isList, isConstant));
     }
 
     /**
      * Deletes the given variable from the most recent scope it exists in.
-     * @param variableName - The name of the variable to delete.
-     * @throws NullPointerException when variableName isn't the name of a variable. 
+     * @param slot - The slot of the variable to delete.
+     * @throws NullPointerException when there is no variable in the given slot. 
      */
-    public void deleteVariable(String variableName) {
-        for (int i = this.scopes.size() - 1; i >= 0; i--) {
-            Scope scope = this.scopes.get(i);
-            try {
-                scope.deleteVariable(variableName);
-                return; // return afer a successful deletion.
-            } catch (NullPointerException e) {
-                // Do nothing. There is no such variable in that scope.
-            }
-        }
+    public void deleteVariable(int slot) {
+        Binding binding = getBinding(slot);
+        if (binding == null)
+            throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + this.symbols.nameOf(slot) + "'.");
 
-        throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'.");
+        this.scopes.get(binding.scopeIndex).removeVariable(slot);
+        this.bindings[slot] = binding.hidden;
     }
 
     /**
      * Updates the value of an existing variable in the most recent scope it exists in.
-     * @param variableName - The name of the variable to be updated.
+     * @param slot - The slot of the variable to be updated.
      * @param newValue - The new value.
-     * @throws NullPointerException when variableName isn't the name of a variable. 
+     * @throws NullPointerException when there is no variable in the given slot. 
      * @throws NumberFormatException when trying to update the value of a constant.
      */
-    public void updateVariable(String variableName, String newValue) {
-        for (int i = this.scopes.size() - 1; i >= 0; i--) {
-            Scope scope = this.scopes.get(i);
-            try {
-                scope.updateVariable(variableName, newValue);
-                return; // return afer a successful update.
-            } catch (NumberFormatException e) {
-                throw e; // thrown if we are trying to update a constant.
-            } catch (NullPointerException e) {
-                // Do nothing. There is no such variable in that scope.
-            }
-        }
+    public void updateVariable(int slot, Value newValue) {
+        Variable variable = getVariable(slot);
+        if (variable.isConstant())
+            throw new NumberFormatException("שגיאה: לא ניתן לשנות את הערך של קבוע '" + this.symbols.nameOf(slot) + "'.");
 
-        throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'."); // incase no such variable is found at all.
+        variable.updateValue(newValue);
     }
     
     /**
      * Updates an item from a list at a specific index.
-     * @param variableName - The name of the list variable.
+     * @param slot - The slot of the list variable.
      * @param index - The index we want to update. We start counting from 1 (so index 1 is the first index, unlike most languages).
      * @param newValue - The new value to use in that index of the list.
-     * @throws NullPointerException if variableName is not a actually the name of a variable that is a list.
-     * @throws NumberFormatException if we are trying to update a non-list as a list.
+     * @throws NullPointerException if there is no variable that is a list in the given slot.
      */
-    public void updateListVariable(String variableName, int index, String newValue) {
-        for (int i = this.scopes.size() - 1; i >= 0; i--) {
-            Scope scope = this.scopes.get(i);
-            try {
-                scope.updateListVariable(variableName, index, newValue);
-                return; // return afer a successful update.
-            } catch (NumberFormatException e) {
-                throw e;
-            } catch (NullPointerException e) {
-                // Do nothing. There is no such variable in that scope.
-            }
-        }
+    public void updateListVariable(int slot, int index, Value newValue) {
+        Variable variable = getVariable(slot);
+        if (!variable.isList())
+            throw new NullPointerException("שגיאה: אי אפשר לעדכן איבר במשתנה '" + this.symbols.nameOf(slot) + "' שאינו רשימה.");
 
-        throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'."); // incase no such variable is found at all.
+        ((ListVariable<?>) variable).updateValueAtIndex(index, newValue);
     }
 
     /**
      * Adds a new item to the list at a specific index (the first index is always 1).
-     * @param variableName - The name of the list variable.
+     * @param slot - The slot of the list variable.
      * @param index - The index we want the new item to be. "1" means we want it as the first element in the result. "end" means we want it to be the last.
      * @param value - The value to be inserted.
-     * @throws NullPointerException if variableName is not a actually the name of a variable that is a list.
-     * @throws NumberFormatException if we are trying to update a non-list as a list.
+     * @throws NullPointerException if there is no variable that is a list in the given slot.
      */
-    public void addToListVariable(String variableName, String index, String value) {
-        for (int i = this.scopes.size() - 1; i >= 0; i--) {
-            Scope scope = this.scopes.get(i);
-            try {
-                scope.addToListVariable(variableName, index, value);
-                return; // Return after a successful update.
-            } catch (NumberFormatException e) {
-                throw e;
-            } catch (NullPointerException e) {
-                // Do nothing. There is no such variable in that scope.
-            }
-        }
+    public void addToListVariable(int slot, String index, Value value) {
+        Variable variable = getVariable(slot);
+        if (!variable.isList())
+            throw new NullPointerException("שגיאה: אי אפשר להוסיף איבר למשתנה '" + this.symbols.nameOf(slot) + "' שאינו רשימה.");
 
-        throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'."); // incase no such variable is found at all.
+        ((ListVariable<?>) variable).addValueAtIndex(index, value);
     }
 
     /**
      * Removes an item from the list at a specific index (the first index is always 1).
-     * @param variableName - The name of the list variable.
+     * @param slot - The slot of the list variable.
      * @param index - The index we want to remove. "1" means we want to remove the first element. "end" means we want to remove the last element.
+     * @throws NullPointerException if there is no variable that is a list in the given slot.
      */
-    public void removeFromListVariable(String variableName, String index) {
-        for (int i = this.scopes.size() - 1; i >= 0; i--) {
-            Scope scope = this.scopes.get(i);
-            try {
-                scope.removeFromListVariable(variableName, index);
-                return; // Return after a successful removal.
-            } catch (NumberFormatException e) {
-                throw e;
-            } catch (NullPointerException e) {
-                // Do nothing. There is no such variable in that scope.
-            }
-        }
+    public void removeFromListVariable(int slot, String index) {
+        Variable variable = getVariable(slot);
+        if (!variable.isList())
+            throw new NullPointerException("שגיאה: אי אפשר להסיר איבר ממשתנה '" + this.symbols.nameOf(slot) + "' שאינו רשימה.");
 
-        throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + variableName + "'."); // incase no such variable is found at all.
+        ((ListVariable<?>) variable).removeValueAtIndex(index);
     }
 
     /**
-     * @param variableName - The name of the variable we want the value of.
-     * @return the value of the variable with the given name.
-     * @throws NullPointerException when variableName isn't the name of a variable. 
+     * @param slot - The slot of the variable we want the value of.
+     * @return the value of the variable in the given slot.
+     * @throws NullPointerException when there is no variable in the given slot. 
      */
-    public String getVariableValue(String variableName) {
-        for (int i = this.scopes.size() - 1; i >= 0; i--) {
-            Scope scope = this.scopes.get(i);
-            try {
-                String val = scope.getVariableValue(variableName);
-                return val;
-            } catch (NullPointerException e) {
-                // Do nothing. There is no such variable in that scope. Maybe it's in a previous scope.
-            }
-        }
+    public Value getVariableValue(int slot) {
+        Binding binding = getBinding(slot);
+        if (binding == null)
+            throw new NullPointerException("שגיאה: לא קיים משתנה בשם '" + this.symbols.nameOf(slot) + "'.");
+
+        return binding.variable.getValue();
+    }
+
+    /**
+     * @param slot - The slot of the variable we want the value of.
+     * @return the value of the variable in the given slot, or null if there is no such variable.
+     */
+    public Value findVariableValue(int slot) {
+        Binding binding = getBinding(slot);
+        return binding == null ? null : binding.variable.getValue();
+    }
 
-        throw new NullPointerException("שגיאה: לא קיים משתנה בשם '" + variableName + "'.");
+    /**
+     * @return the object that gives every variable name its slot.
+     */
+    public SymbolTable getSymbols() {
+        return this.symbols;
     }
 
     /**
@@ -202,6 +210,7 @@ public class VariablesController {
         for (Scope scope : this.scopes) {
             scope.clear();
         }
+        Arrays.fill(this.bindings, null);
     }
 
     /**
@@ -209,7 +218,7 @@ public class VariablesController {
      */
     public void printVariables(IvritIO io) {
         for (Scope scope : this.scopes) {
-            scope.printVariables(io);
+            scope.printVariables(io, this.symbols);
         }
     }
 
@@ -222,9 +231,10 @@ public class VariablesController {
 
     /**
      * Creates a new scope for the program which contains some values (useful for passing arguments to function scopes).
+     * @param functionName - The name of the function whose parameters are created in the new scope.
+     * @param args - The values of the arguments, in the order of the parameters.
      */
-    public void createScope(String functionName, String[] args) {
-        Scope newScope = new Scope();
+    public void createScope(String functionName, Value[] args) {
         List<ArgumentData> expectedArgs = this.functionDefinitions.get(functionName);
         if (expectedArgs == null)
             throw new IllegalArgumentException("שגיאה: לא נמצאה פונקציה בשם '" + functionName + "'.");
@@ -232,17 +242,17 @@ public class VariablesController {
         if (expectedArgs.size() != args.length)
             throw new IllegalArgumentException("שגיאה: בקריאה לפונקציה '" + functionName + "' נשלחו " + args.length + "ארגומנטים, אך ציפינו לקבל " + expectedArgs.size());
 
+        // Create all the parameters before the scope, so a wrong argument doesn't leave a half built scope:
+        Variable[] parameters = new Variable[args.length];
         for (int i = 0; i < args.length; i++) {
             ArgumentData currData = expectedArgs.get(i);
-            try {
-                String value = getVariableValue(args[i]);
-                newScope.createVariable(currData.getName(), currData.getType(), value, currData.getIsList(), false);
-            } catch (NullPointerException e) {
-                newScope.createVariable(currData.getName(), currData.getType(), args[i], currData.getIsList(), false);
-            }
+            parameters[i] = VariablesFactory.createVariable(currData.getType(), args[i], currData.getIsList(), false);
         }
 
-        this.scopes.add(newScope);
+        int[] slots = this.parameterSlots.get(functionName);
+        this.scopes.add(new Scope());
+        for (int i = 0; i < parameters.length; i++)
+            bind(slots[i], parameters[i]);
     } 
 
     /**
@@ -250,7 +260,52 @@ public class VariablesController {
      */
     public void popScope() {
         int last = this.scopes.size() - 1;
-        this.scopes.get(last).clear();
+        Scope scope = this.scopes.get(last);
+        for (int i = 0; i < scope.getVariablesCount(); i++) {
+            int slot = scope.getSlot(i);
+            this.bindings[slot] = this.bindings[slot].hidden;
+        }
+
+        scope.clear();
         this.scopes.remove(last);
     }
+
+    /**
+     * @param slot - The slot of the variable.
+     * @return the most recent variable in the given slot.
+     * @throws NullPointerException when there is no variable in the given slot. 
+     */
+    private Variable getVariable(int slot) {
+        Binding binding = getBinding(slot);
+        if (binding == null)
+            throw new NullPointerException("שגיאה: לא נמצא משתנה בשם '" + this.symbols.nameOf(slot) + "'.");
+
+        return binding.variable;
+    }
+
+    /**
+     * @return the most recent binding of the given slot, or null if it has none.
+     */
+    private Binding getBinding(int slot) {
+        // Slots that were given after this was created (names only seen while interpreting) don't have bindings yet:
+        return slot < this.bindings.length ? this.bindings[slot] : null;
+    }
+
+    /**
+     * Binds the given slot to the given variable in the most recent scope.
+     * If the slot is already bound in that scope, the old variable is replaced.
+     */
+    private void bind(int slot, Variable variable) {
+        if (slot >= this.bindings.length)
+            this.bindings = Arrays.copyOf(this.bindings, Math.max(slot + 1, this.bindings.length * 2));
+
+        int scopeIndex = this.scopes.size() - 1;
+        Binding binding = this.bindings[slot];
+        if (binding != null && binding.scopeIndex == scopeIndex)
+            binding.variable = variable;
+        else
+            this.bindings[slot] = new Binding(variable, scopeIndex, binding);
+
+        this.scopes.get(scopeIndex).putVariable(slot, variable);
+    }
 }
@@ -1,14 +1,14 @@
 package ivrit.interpreter.Variables;
 
 /**
- * Handles creating the correct type of variable from a string.
+ * Handles creating the correct type of variable from a value.
  */
 public class VariablesFactory {
     // the variables we use to create new items inside lists:
-    private static final BooleanVariable boolCopy = new BooleanVariable("שקר");
-    private static final IntegerVariable intCopy = new IntegerVariable("0");
-    private static final FloatVariable floatCopy = new FloatVariable("0.0");
-    private static final StringVariable stringCopy = new StringVariable("\"\"");
+    private static final BooleanVariable boolCopy = new BooleanVariable(Value.FALSE);
+    private static final IntegerVariable intCopy = new IntegerVariable(Value.ofInteger(0));
+    private static final FloatVariable floatCopy = new FloatVariable(Value.ofFloat(0));
+    private static final StringVariable stringCopy = new StringVariable(Value.ofString(""));
 
     /**
      * @param type - The type of the variable
@@ -16,7 +16,7 @@ public class VariablesFactory {
      * @return a new variable from the given type with the given value
      * @throws TypeNotPresentException when the type parameter is not recognized in the Ivrit language.
      */
-    public static Variable createVariable(String type, String value, boolean isList, boolean isConstant) {
+    public static Variable createVariable(String type, Value value, boolean isList, boolean isConstant) {
         if (isList) {
             switch (type) {
                 case "טענה":
@@ -45,22 +45,4 @@ public class VariablesFactory {
             }
         }
     }
-
-    /**
-     * Creates a numeric variable by using only the value.
-     * @param value - The value the variable returned has.
-     * @return - A numeric variable of the correct type, with the given value.
-     * @throws ClassCastException when the given value cannot be the value of any NumericVariable.
-     */
-    public static NumericVariable createNumericVariableByValue(String value) {
-        if (IntegerVariable.isIntegerValue(value)) {
-            return new IntegerVariable(value);
-        } 
-        
-        if (FloatVariable.isFloatValue(value)) {
-            return new FloatVariable(value);
-        }
-
-        throw new ClassCastException("הערך " + value + "אינו מתאים לאף משתנה מספרי.");
-    }
 }
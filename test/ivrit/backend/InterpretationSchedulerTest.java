@@ -0,0 +1,156 @@
+package ivrit.backend;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import ivrit.backend.InterpretationScheduler.Admission;
+
+/**
+ * Tests the admission, the turns and the cancellation of the interpretations of the InterpretationScheduler.
+ */
+public class InterpretationSchedulerTest {
+    // How long we wait for the scheduler to run something on its threads:
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    // Blocks the interpretations that wait for it, until it is opened:
+    private final CountDownLatch gate = new CountDownLatch(1);
+    // The names of the interpretations that ran, in the order they ran:
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+    // The scheduler of the test (created by every test):
+    private InterpretationScheduler scheduler;
+
+    @AfterEach
+    public void tearDown() {
+        this.gate.countDown();
+        if (this.scheduler != null)
+            this.scheduler.shutdown();
+    }
+
+    @Test
+    public void startsWhenThereIsRoomAndQueuesOtherwise() {
+        this.scheduler = new InterpretationScheduler(2, 1, 4);
+
+        assertEquals(Admission.STARTED, this.scheduler.submit("a", blocked("a1"), position -> { }));
+        // Every user runs a single program at a time:
+        assertEquals(Admission.QUEUED, this.scheduler.submit("a", recorded("a2"), position -> { }));
+        assertEquals(Admission.STARTED, this.scheduler.submit("b", blocked("b1"), position -> { }));
+        // Every thread is busy:
+        assertEquals(Admission.QUEUED, this.scheduler.submit("c", recorded("c1"), position -> { }));
+
+        this.gate.countDown();
+        await().atMost(TIMEOUT).until(() -> this.ran.size() == 4);
+        assertTrue(this.ran.containsAll(List.of("a1", "a2", "b1", "c1")));
+    }
+
+    @Test
+    public void rejectsWhenTheQueueIsFullWithoutTouchingTheWaitingPrograms() {
+        this.scheduler = new InterpretationScheduler(1, 1, 1);
+
+        assertEquals(Admission.STARTED, this.scheduler.submit("a", blocked("a1"), position -> { }));
+        assertEquals(Admission.QUEUED, this.scheduler.submit("b", recorded("b1"), position -> { }));
+        assertEquals(Admission.SERVER_BUSY, this.scheduler.submit("c", recorded("c1"), position -> { }));
+        assertEquals(1L, this.scheduler.getStatistics().get("rejected"));
+
+        this.gate.countDown();
+        await().atMost(TIMEOUT).until(() -> this.ran.size() == 2);
+        assertEquals(List.of("a1", "b1"), this.ran);
+    }
+
+    @Test
+    public void aNewProgramReplacesTheWaitingProgramOfItsUser() {
+        this.scheduler = new InterpretationScheduler(1, 1, 1);
+
+        this.scheduler.submit("a", blocked("a1"), position -> { });
+        assertEquals(Admission.QUEUED, this.scheduler.submit("b", recorded("b1"), position -> { }));
+        // The queue is full, but the new program takes the place of the program it replaces:
+        assertEquals(Admission.QUEUED, this.scheduler.submit("b", recorded("b2"), position -> { }));
+        assertEquals(1L, this.scheduler.getStatistics().get("waiting"));
+
+        this.gate.countDown();
+        await().atMost(TIMEOUT).until(() -> this.ran.size() == 2);
+        assertEquals(List.of("a1", "b2"), this.ran);
+    }
+
+    @Test
+    public void usersTakeTurns() {
+        this.scheduler = new InterpretationScheduler(1, 1, 8);
+
+        this.scheduler.submit("a", blocked("a1"), position -> { });
+        this.scheduler.submit("b", recorded("b1"), position -> { });
+        this.scheduler.submit("c", recorded("c1"), position -> { });
+        // A program that used up its time slice waits after everyone else:
+        this.scheduler.resume("a", recorded("a1 continued"), false);
+        // A program that got its input doesn't wait for the others again:
+        this.scheduler.resume("d", recorded("d1 continued"), true);
+
+        this.gate.countDown();
+        await().atMost(TIMEOUT).until(() -> this.ran.size() == 5);
+        assertEquals(List.of("a1", "d1 continued", "b1", "c1", "a1 continued"), this.ran);
+    }
+
+    @Test
+    public void waitingProgramsAreToldAboutTheirPositions() {
+        this.scheduler = new InterpretationScheduler(1, 1, 8);
+        List<Integer> positionsOfB = new CopyOnWriteArrayList<>();
+        List<Integer> positionsOfC = new CopyOnWriteArrayList<>();
+
+        this.scheduler.submit("a", blocked("a1"), position -> { });
+        this.scheduler.submit("b", recorded("b1"), positionsOfB::add);
+        this.scheduler.submit("c", recorded("c1"), positionsOfC::add);
+        assertEquals(List.of(1), positionsOfB);
+        assertEquals(List.of(2), positionsOfC);
+
+        this.scheduler.cancelWaiting("b");
+        assertEquals(List.of(2, 1), positionsOfC);
+    }
+
+    @Test
+    public void cancelledProgramsNeverRun() throws InterruptedException {
+        this.scheduler = new InterpretationScheduler(1, 1, 8);
+
+        this.scheduler.submit("a", blocked("a1"), position -> { });
+        this.scheduler.submit("b", recorded("b1"), position -> { });
+        this.scheduler.resume("b", recorded("b1 continued"), true);
+        assertEquals(2, this.scheduler.cancelWaiting("b"));
+        assertEquals(0, this.scheduler.cancelWaiting("b"));
+
+        this.gate.countDown();
+        await().atMost(TIMEOUT).until(() -> this.scheduler.getStatistics().get("running") == 0L);
+        // Give a wrongly started program a chance to run:
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(List.of("a1"), this.ran);
+        assertFalse(this.ran.contains("b1"));
+    }
+
+    /**
+     * @return an interpretation that waits until the gate opens, and then records that it ran.
+     */
+    private Runnable blocked(String name) {
+        return () -> {
+            try {
+                this.gate.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            this.ran.add(name);
+        };
+    }
+
+    /**
+     * @return an interpretation that only records that it ran.
+     */
+    private Runnable recorded(String name) {
+        return () -> this.ran.add(name);
+    }
+}